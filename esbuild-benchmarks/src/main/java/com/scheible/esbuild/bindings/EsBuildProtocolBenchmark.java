@@ -0,0 +1,112 @@
+package com.scheible.esbuild.bindings;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding of transform requests and decoding of transform responses. The string benchmarks contain the former
+ * implementations (byte per char decoding, intermediate byte array for encoding) as baselines.
+ *
+ * @author sj
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EsBuildProtocolBenchmark {
+
+	@Param({"10240", "512000"})
+	int payloadSize;
+
+	private Map<String, Object> transformRequest;
+	private final WriteByteBuffer reusedBuffer = new WriteByteBuffer(1024);
+	private ByteBuffer transformResponse;
+
+	private String code;
+	private ByteBuffer encodedCode;
+
+	@Setup
+	public void setup() {
+		byte[] input = Payloads.typeScript(this.payloadSize).getBytes(StandardCharsets.UTF_8);
+		this.transformRequest = Map.of("command", "transform", //
+				"flags", new String[]{"--log-level=silent", "--log-limit=0", "--platform=browser", "--sourcemap=inline",
+					"--loader=ts", "--sourcefile=./benchmark.ts"}, //
+				"input", ByteBuffer.wrap(input), //
+				"inputFS", false);
+
+		this.code = Payloads.javaScript(this.payloadSize);
+		ByteBuffer encodedResponse = EsBuildProtocol.encodePacket(1, false, Map.of("code", this.code, "codeFS", false,
+				"map", "", "mapFS", false, "errors", new Object[0], "warnings", new Object[0]));
+		this.transformResponse = encodedResponse.slice(4, encodedResponse.position() - 4); // without leading length
+
+		byte[] codeBytes = this.code.getBytes(StandardCharsets.UTF_8);
+		this.encodedCode = ByteBuffer.allocate(4 + codeBytes.length).order(ByteOrder.LITTLE_ENDIAN)
+				.putInt(codeBytes.length).put(codeBytes).flip();
+	}
+
+	@Benchmark
+	public Object encodeTransformRequest() {
+		return EsBuildProtocol.encodePacket(1, true, this.transformRequest);
+	}
+
+	@Benchmark
+	public Object encodeTransformRequestReusedBuffer() {
+		EsBuildProtocol.encodePacket(this.reusedBuffer.clear(), 1, true, this.transformRequest);
+		return this.reusedBuffer;
+	}
+
+	@Benchmark
+	public Object decodeTransformResponse() {
+		return EsBuildProtocol.decodePacket(this.transformResponse.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	@Benchmark
+	public Object decodeTransformResponseSpecialized() {
+		return EsBuildProtocol.decodeTransformResponse(this.transformResponse.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	@Benchmark
+	public String readString() {
+		return EsBuildProtocol.readString(this.encodedCode.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+	}
+
+	@Benchmark
+	public String readStringPerByteBaseline() {
+		ByteBuffer buffer = this.encodedCode.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		int textLength = buffer.getInt();
+		StringBuilder stringBuilder = new StringBuilder();
+		for (int i = 0; i < textLength; i++) {
+			stringBuilder.append((char) buffer.get());
+		}
+		return stringBuilder.toString();
+	}
+
+	@Benchmark
+	public Object writeString() {
+		WriteByteBuffer buffer = new WriteByteBuffer(4 + WriteByteBuffer.utf8Length(this.code));
+		return buffer.putInt(0).putUtf8(this.code);
+	}
+
+	@Benchmark
+	public Object writeStringGetBytesBaseline() {
+		byte[] stringBytes = this.code.getBytes(StandardCharsets.UTF_8);
+		WriteByteBuffer buffer = new WriteByteBuffer(4 + stringBytes.length);
+		return buffer.putInt(stringBytes.length).put(stringBytes);
+	}
+}
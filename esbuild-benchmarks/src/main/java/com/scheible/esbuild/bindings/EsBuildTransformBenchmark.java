@@ -0,0 +1,84 @@
+package com.scheible.esbuild.bindings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end transforms with real esbuild processes. Every invocation of {@link #transformBatch()} submits
+ * {@code concurrency} transforms at once and waits for all of them, {@link #transformSingle()} measures the latency of
+ * a single transform.
+ *
+ * @author sj
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EsBuildTransformBenchmark {
+
+	private static final String[] FLAGS = {"--platform=browser", "--sourcemap=inline"};
+
+	@Param({"1", "4"})
+	int poolSize;
+
+	@Param({"1", "16", "128"})
+	int concurrency;
+
+	@Param({"1024", "102400"})
+	int payloadSize;
+
+	private EsBuildPool esBuildPool;
+	private byte[] input;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.esBuildPool = EsBuildPool.start(null, Path.of("."), this.poolSize);
+		this.input = Payloads.typeScript(this.payloadSize).getBytes(StandardCharsets.UTF_8);
+
+		// an invalid payload would only measure how fast esbuild reports errors
+		TranspilationResult result = this.esBuildPool.transformAsync("benchmark.ts", this.input, FLAGS).join();
+		if (!result.errors().isEmpty()) {
+			this.esBuildPool.stop();
+			throw new IllegalStateException("The payload of " + this.payloadSize + " bytes does not transform: "
+					+ result.errors());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.esBuildPool.stop();
+	}
+
+	@Benchmark
+	public Object transformBatch() {
+		@SuppressWarnings("unchecked")
+		CompletableFuture<TranspilationResult>[] resultFutures = new CompletableFuture[this.concurrency];
+		for (int i = 0; i < this.concurrency; i++) {
+			resultFutures[i] = this.esBuildPool.transformAsync("benchmark.ts", this.input, FLAGS);
+		}
+		return CompletableFuture.allOf(resultFutures).join();
+	}
+
+	@Benchmark
+	public TranspilationResult transformSingle() {
+		return this.esBuildPool.transformAsync("benchmark.ts", this.input, FLAGS).join();
+	}
+}
@@ -0,0 +1,36 @@
+package com.scheible.esbuild.bindings;
+
+/**
+ * Generates valid TypeScript and JavaScript sources of about a given size. The sources always end after a whole
+ * function, so they are at most the given size (but at least one function).
+ *
+ * @author sj
+ */
+class Payloads {
+
+	static String typeScript(int size) {
+		StringBuilder typeScript = new StringBuilder(size);
+		for (int i = 0; ; i++) {
+			String function = "// Größe der Funktion " + i + "\n"
+					+ "export function func" + i + "(text: string, count: number): string {\n"
+					+ "\treturn text.repeat(count) + '" + i + "';\n}\n\n";
+			if (i > 0 && typeScript.length() + function.length() > size) {
+				return typeScript.toString();
+			}
+			typeScript.append(function);
+		}
+	}
+
+	static String javaScript(int size) {
+		StringBuilder javaScript = new StringBuilder(size);
+		for (int i = 0; ; i++) {
+			String function = "// Größe der Funktion " + i + "\n"
+					+ "export function func" + i + "(text, count) {\n"
+					+ "  return text.repeat(count) + \"" + i + "\";\n}\n";
+			if (i > 0 && javaScript.length() + function.length() > size) {
+				return javaScript.toString();
+			}
+			javaScript.append(function);
+		}
+	}
+}
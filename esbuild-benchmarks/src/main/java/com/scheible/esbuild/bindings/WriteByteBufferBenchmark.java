@@ -0,0 +1,51 @@
+package com.scheible.esbuild.bindings;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Growth of a {@link WriteByteBuffer} that starts with 1 KB (like for every encoded packet) compared to a buffer that
+ * is sized upfront.
+ *
+ * @author sj
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteByteBufferBenchmark {
+
+	private static final byte[] CHUNK = new byte[256];
+
+	@Param({"10240", "512000"})
+	int payloadSize;
+
+	@Benchmark
+	public Object growing() {
+		return fill(new WriteByteBuffer(1024));
+	}
+
+	@Benchmark
+	public Object presized() {
+		return fill(new WriteByteBuffer(this.payloadSize));
+	}
+
+	private WriteByteBuffer fill(WriteByteBuffer buffer) {
+		for (int written = 0; written < this.payloadSize; written += CHUNK.length) {
+			buffer.ensureRemaining(CHUNK.length);
+			buffer.put(CHUNK);
+		}
+		return buffer;
+	}
+}
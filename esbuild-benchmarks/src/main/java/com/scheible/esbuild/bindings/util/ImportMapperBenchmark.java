@@ -0,0 +1,44 @@
+package com.scheible.esbuild.bindings.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping of 10k relative script paths to an import map.
+ *
+ * @author sj
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportMapperBenchmark {
+
+	private final List<Path> scriptFiles = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < 10_000; i++) {
+			this.scriptFiles.add(Path.of("module" + (i / 100), "sub module", "component" + i + ".ts"));
+		}
+	}
+
+	@Benchmark
+	public Object map() {
+		return ImportMapper.map(this.scriptFiles, ImportMapper.FRONTEND_PREFIX_PLACEHOLDER);
+	}
+}
@@ -3,6 +3,7 @@ package com.scheible.esbuildspringboot;
 import com.scheible.esbuild.spring.AppRevision;
 import com.scheible.esbuild.bindings.util.ImportMapGenerator;
 import com.scheible.esbuild.bindings.util.ImportMapper;
+import com.scheible.esbuild.bindings.util.ModulePreloadGenerator;
 import jakarta.servlet.ServletContext;
 import java.util.Map;
 import org.springframework.stereotype.Controller;
@@ -19,21 +20,27 @@ public class IndexController {
 
 	private final AppRevision appRevision;
 	private final ImportMapGenerator importMapGenerator;
+	private final ModulePreloadGenerator modulePreloadGenerator;
 	private final ServletContext servletContext;
 
-	public IndexController(AppRevision appRevision, ImportMapGenerator importMapGenerator, ServletContext servletContext) {
+	public IndexController(AppRevision appRevision, ImportMapGenerator importMapGenerator,
+			ModulePreloadGenerator modulePreloadGenerator, ServletContext servletContext) {
 		this.appRevision = appRevision;
 		this.importMapGenerator = importMapGenerator;
+		this.modulePreloadGenerator = modulePreloadGenerator;
 		this.servletContext = servletContext;
 	}
 
 	@GetMapping("/")
 	public ModelAndView getPage(Model model) {
-		model.addAttribute("appRevision", this.appRevision.value());
-		model.addAttribute("importMap", this.importMapGenerator.generate(Map.of( //
+		Map<String, String> params = Map.of( //
 				ImportMapper.FRONTEND_PREFIX_PLACEHOLDER, this.servletContext.getContextPath() + "/frontend", //
 				ImportMapper.LIBRARY_PREFIX_PLACEHOLDER, this.servletContext.getContextPath() + "/webjars", //
-				ImportMapper.APP_REVISION_PLACEHOLDER, this.appRevision.value())));
+				ImportMapper.APP_REVISION_PLACEHOLDER, this.appRevision.value());
+
+		model.addAttribute("appRevision", this.appRevision.value());
+		model.addAttribute("importMap", this.importMapGenerator.generate(params));
+		model.addAttribute("modulePreloads", this.modulePreloadGenerator.generate("~/main", params));
 
 		return new ModelAndView("index", model.asMap());
 	}
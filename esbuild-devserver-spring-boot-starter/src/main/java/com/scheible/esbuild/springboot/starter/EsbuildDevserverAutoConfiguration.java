@@ -3,22 +3,32 @@ package com.scheible.esbuild.springboot.starter;
 import com.scheible.esbuild.spring.AppRevision;
 import com.scheible.esbuild.spring.EsBuildFilter;
 import com.scheible.esbuild.spring.EsBuildService;
+import com.scheible.esbuild.spring.FrontendWatcher;
+import com.scheible.esbuild.spring.HotReloadServlet;
 import com.scheible.esbuild.springboot.starter.EsbuildDevserverAutoConfiguration.DevToolsEnvironment;
 import com.scheible.esbuild.springboot.starter.EsbuildDevserverAutoConfiguration.JarEnvironment;
 import com.scheible.esbuild.bindings.util.ImportMapGenerator;
+import com.scheible.esbuild.bindings.util.ModulePreloadGenerator;
 import com.scheible.esbuild.spring.importmap.DevToolsImportMapGenerator;
+import com.scheible.esbuild.spring.importmap.DevToolsModulePreloadGenerator;
 import com.scheible.esbuild.spring.importmap.JarImportMapGenerator;
+import com.scheible.esbuild.spring.importmap.JarModulePreloadGenerator;
 import jakarta.servlet.ServletContext;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.info.GitProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.unit.DataSize;
 
 /**
  *
@@ -37,23 +47,64 @@ public class EsbuildDevserverAutoConfiguration {
 	@ConditionalOnClass(name = "org.springframework.boot.devtools.settings.DevToolsSettings")
 	static class DevToolsEnvironment {
 
+		private static final Path SRC_DIR = Path.of(".", "src", "main", "frontend", "src");
+		private static final Path LIB_DIR = Path.of(".", "src", "main", "frontend", "lib");
+
+		@Bean
+		@ConditionalOnMissingBean
+		ImportMapGenerator importMapGenerator(ResourceLoader resourceLoader, Optional<FrontendWatcher> frontendWatcher,
+				Optional<ServletRegistrationBean<HotReloadServlet>> hotReloadServlet) {
+			return new DevToolsImportMapGenerator(resourceLoader, frontendWatcher, hotReloadServlet.isPresent());
+		}
+
 		@Bean
 		@ConditionalOnMissingBean
-		ImportMapGenerator importMapGenerator(ResourceLoader resourceLoader) {
-			return new DevToolsImportMapGenerator(resourceLoader);
+		ModulePreloadGenerator modulePreloadGenerator() {
+			return new DevToolsModulePreloadGenerator();
 		}
 
 		@Bean
 		@ConditionalOnMissingBean
-		EsBuildService buildService(ResourceLoader resourceLoader,
-				@Value("${esbuild-spring-devserver.esbuild-version}") Optional<String> esBuildVersion) {
-			return new EsBuildService(resourceLoader, esBuildVersion);
+		@ConditionalOnProperty(name = "esbuild-spring-devserver.watch", havingValue = "true", matchIfMissing = true)
+		FrontendWatcher frontendWatcher() {
+			return new FrontendWatcher(List.of(SRC_DIR, LIB_DIR), FrontendWatcher.DEFAULT_DEBOUNCE);
+		}
+
+		@Bean
+		@ConditionalOnProperty(name = {"esbuild-spring-devserver.watch", "esbuild-spring-devserver.hot-reload"},
+				havingValue = "true", matchIfMissing = true)
+		ServletRegistrationBean<HotReloadServlet> hotReloadServlet(FrontendWatcher frontendWatcher,
+				AppRevision appRevision) {
+			HotReloadServlet hotReloadServlet = new HotReloadServlet(SRC_DIR, appRevision);
+			frontendWatcher.addListener(hotReloadServlet);
+
+			ServletRegistrationBean<HotReloadServlet> registration = new ServletRegistrationBean<>(hotReloadServlet,
+					HotReloadServlet.PATH_PREFIX + "/*");
+			registration.setAsyncSupported(true);
+			return registration;
 		}
 
 		@Bean
 		@ConditionalOnMissingBean
-		EsBuildFilter esBuildFilter(ResourceLoader resourceLoader, ServletContext servletContext, EsBuildService esBuildService) {
-			return new EsBuildFilter(resourceLoader, servletContext, esBuildService);
+		EsBuildService buildService(ResourceLoader resourceLoader, Optional<FrontendWatcher> frontendWatcher,
+				@Value("${esbuild-spring-devserver.esbuild-version:#{null}}") Optional<String> esBuildVersion,
+				@Value("${esbuild-spring-devserver.pool-size:#{null}}") Optional<Integer> poolSize,
+				@Value("${esbuild-spring-devserver.cache-size:#{null}}") Optional<DataSize> cacheSize,
+				@Value("${esbuild-spring-devserver.disk-cache-size:#{null}}") Optional<DataSize> diskCacheSize,
+				@Value("${esbuild-spring-devserver.warmup:#{null}}") Optional<Boolean> warmup) {
+			EsBuildService esBuildService = new EsBuildService(resourceLoader, esBuildVersion, poolSize, cacheSize,
+					diskCacheSize, warmup);
+			frontendWatcher.ifPresent(watcher -> watcher.addListener(esBuildService));
+			return esBuildService;
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		EsBuildFilter esBuildFilter(ResourceLoader resourceLoader, ServletContext servletContext, EsBuildService esBuildService,
+				Optional<FrontendWatcher> frontendWatcher) {
+			EsBuildFilter esBuildFilter = new EsBuildFilter(resourceLoader, servletContext, esBuildService);
+			frontendWatcher.ifPresent(watcher -> watcher.addListener(esBuildFilter));
+			return esBuildFilter;
 		}
 	}
 
@@ -65,5 +116,11 @@ public class EsbuildDevserverAutoConfiguration {
 		ImportMapGenerator importMapGenerator() {
 			return new JarImportMapGenerator();
 		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		ModulePreloadGenerator modulePreloadGenerator() {
+			return new JarModulePreloadGenerator();
+		}
 	}
 }
@@ -0,0 +1,71 @@
+package com.scheible.esbuild.bindings;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A long-lived build context of esbuild that reuses the parsed files of the previous build. The context lives in a
+ * single esbuild process, all requests are sent to that process. Must be disposed (or closed) when no longer needed.
+ *
+ * @author sj
+ */
+public class BuildContext implements AutoCloseable {
+
+	private static final int REQUEST_SIZE = 64;
+
+	private final EsBuild esBuild;
+	private final int key;
+
+	private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+	BuildContext(EsBuild esBuild, int key) {
+		this.esBuild = esBuild;
+		this.key = key;
+	}
+
+	/**
+	 * Builds again, only files that changed since the last (re)build are parsed again.
+	 */
+	public CompletableFuture<BuildResult> rebuildAsync() {
+		if (this.disposed.get()) {
+			return CompletableFuture.failedFuture(new IllegalStateException("The build context was disposed!"));
+		}
+
+		return this.esBuild.sendRequest(Map.of("command", "rebuild", "key", this.key), REQUEST_SIZE,
+				EsBuild::toBuildResult);
+	}
+
+	/**
+	 * Cancels a running rebuild (if any). The cancelled rebuild completes with the errors of the cancellation.
+	 */
+	public CompletableFuture<Void> cancelAsync() {
+		if (this.disposed.get()) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return this.esBuild.sendRequest(Map.of("command", "cancel", "key", this.key), REQUEST_SIZE,
+				response -> null);
+	}
+
+	/**
+	 * Frees the resources of the context in the esbuild process. Disposing more than once has no effect.
+	 */
+	public CompletableFuture<Void> disposeAsync() {
+		if (!this.disposed.compareAndSet(false, true)) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return this.esBuild.sendRequest(Map.of("command", "dispose", "key", this.key), REQUEST_SIZE,
+				response -> null);
+	}
+
+	public boolean isDisposed() {
+		return this.disposed.get();
+	}
+
+	@Override
+	public void close() {
+		disposeAsync().join();
+	}
+}
@@ -0,0 +1,24 @@
+package com.scheible.esbuild.bindings;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The in-memory output files of a build. The metafile is only present if built with {@code --metafile}.
+ *
+ * @author sj
+ */
+public record BuildResult(List<OutputFile> outputFiles, Optional<String> metafile, Optional<TranspilationError> error) {
+
+	/**
+	 * The path is absolute (within the {@code --outdir}).
+	 */
+	public record OutputFile(Path path, byte[] contents, String hash) {
+
+		public String text() {
+			return new String(this.contents, StandardCharsets.UTF_8);
+		}
+	}
+}
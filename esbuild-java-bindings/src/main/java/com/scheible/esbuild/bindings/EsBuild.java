@@ -1,6 +1,7 @@
 package com.scheible.esbuild.bindings;
 
-import com.scheible.esbuild.bindings.EsBuildProtocol.Packet;
+import com.scheible.esbuild.bindings.EsBuildProtocol.EncodedStringArray;
+import com.scheible.esbuild.bindings.EsBuildProtocol.TransformResponse;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -8,19 +9,23 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +40,40 @@ public class EsBuild {
 	private static final List<String> STANDARD_RUN_FLAGS = List.of("--color=false");
 
 	private static final String[] STRING_ARRAY_TYPE = new String[]{};
-	private static final List<String> STANDARD_TRANSFORM_FLAGS = List.of("--log-level=silent", "--log-limit=0");
+	private static final List<String> STANDARD_BUILD_FLAGS = List.of("--log-level=silent", "--log-limit=0");
+
+	/**
+	 * The read and the write buffer grow with the packets and are reused afterwards. Only a buffer that has grown
+	 * beyond the retained size is replaced by a new one as soon as a small packet follows, to not hold huge buffers
+	 * forever.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+	private static final int REQUEST_OVERHEAD = 256;
+
+	/**
+	 * A packet waiting to be sent by the write thread. The future (if any) is completed exceptionally if the packet
+	 * could not be sent.
+	 */
+	private record OutgoingPacket(int id, boolean request, Map<String, Object> value, int expectedSize,
+			CompletableFuture<?> resultFuture) {
+
+	}
+
+	/**
+	 * A request waiting for its response. The decoder converts the response packet (without leading length) to the
+	 * result of the future, it is called by the read thread while the packet is still in the read buffer.
+	 */
+	private record PendingRequest<T>(CompletableFuture<T> resultFuture, Function<ByteBuffer, T> packetDecoder) {
+
+		void complete(ByteBuffer packet) {
+			try {
+				this.resultFuture.complete(this.packetDecoder.apply(packet));
+			} catch (RuntimeException ex) {
+				this.resultFuture.completeExceptionally(ex);
+			}
+		}
+	}
 	
 	private static final Object INSTANCE_LOCK = new Object();
 	private static EsBuild instance = null;
@@ -43,19 +81,29 @@ public class EsBuild {
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+	private final String esBuildVersion;
+	private final Path workDir;
 	private final Process process;
+	private final boolean shared;
 
 	private final AtomicInteger requestId = new AtomicInteger(0);
+	private final AtomicInteger buildKey = new AtomicInteger(0);
 
-	private final ExecutorService executor = Executors.newCachedThreadPool();
-	private final Map<Integer, CountDownLatch> synchronizationMap = new ConcurrentHashMap<>();
-	private final Map<Integer, TranspilationResult> resultMap = new ConcurrentHashMap<>();
+	private final Map<Integer, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
 
 	private final AtomicBoolean reading = new AtomicBoolean(true);
 	private final Thread readThread;
 
-	private EsBuild(String esBuildVersion, Process process) {
+	private final BlockingQueue<OutgoingPacket> outgoingPackets = new LinkedBlockingQueue<>();
+	private final Thread writeThread;
+
+	private WriteByteBuffer writeBuffer = new WriteByteBuffer(INITIAL_BUFFER_SIZE); // only used by the write thread
+
+	private EsBuild(String esBuildVersion, Path workDir, Process process, boolean shared) {
+		this.esBuildVersion = esBuildVersion;
+		this.workDir = workDir.toAbsolutePath().normalize();
 		this.process = process;
+		this.shared = shared;
 
 		this.readThread = new Thread(() -> {
 			this.logger.info("esbuild {} is running...", esBuildVersion);
@@ -65,6 +113,8 @@ public class EsBuild {
 			ByteBuffer packetLengthBuffer = ByteBuffer.wrap(packetLengthBytes);
 			packetLengthBuffer.order(ByteOrder.LITTLE_ENDIAN);
 
+			ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
 			while (this.reading.get()) {
 				try {
 					if (process.getInputStream().readNBytes(packetLengthBytes, 0, 4) != 4) {
@@ -75,8 +125,14 @@ public class EsBuild {
 					}
 					int packetLength = packetLengthBuffer.getInt(0);
 
-					ByteBuffer buffer = ByteBuffer.allocate(packetLength);
-					buffer.order(ByteOrder.LITTLE_ENDIAN);
+					if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE && packetLength <= INITIAL_BUFFER_SIZE) {
+						buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+					} else if (buffer.capacity() < packetLength) {
+						buffer = ByteBuffer.allocate(Math.max(packetLength, buffer.capacity() * 2))
+								.order(ByteOrder.LITTLE_ENDIAN);
+					}
+					buffer.clear().limit(packetLength);
+
 					if (process.getInputStream().readNBytes(buffer.array(), 0, packetLength) != packetLength) {
 						if (this.reading.get()) {
 							this.logger.error("Error reading esbuild output.");
@@ -86,39 +142,20 @@ public class EsBuild {
 
 					// first package is the returned version number --> just ignore
 					if (!firstPacket) {
-						Packet packet = EsBuildProtocol.decodePacket(buffer);
-
-						if (packet.request() && "ping".equals(packet.value().get("command"))) {
-							ByteBuffer sendBuffer = EsBuildProtocol.encodePacket(packet.id(), false, Map.of());
-							process.getOutputStream().write(sendBuffer.array(), 0, sendBuffer.position());
-							process.getOutputStream().flush();
-						} else if (!packet.request()) {
-							String code = (String) packet.value().get("code");
-							Object[] errors = (Object[]) packet.value().get("errors");
-
-							if (errors.length == 0) {
-								this.resultMap.put(packet.id(), new TranspilationResult(Optional.of(code), Optional.empty()));
-							} else {
-								@SuppressWarnings("unchecked")
-								Map<String, Object> firstError
-										= (Map<String, Object>) errors[0];
-
-								String text = (String) firstError.get("text");
-
-								@SuppressWarnings("unchecked")
-								Map<String, Object> location
-										= (Map<String, Object>) firstError.get("location");
-								int line = (int) location.get("line");
-								int column = (int) location.get("column");
-								String lineText = (String) location.get("lineText");
-
-								this.resultMap.put(packet.id(), new TranspilationResult(Optional.empty(),
-										Optional.of(new TranspilationError(line, column, text, lineText))));
-							}
-
-							this.synchronizationMap.get(packet.id()).countDown();
+						// only the id is read upfront, the pending request decodes the rest
+						int id = buffer.getInt(0);
+						boolean request = (id & 1) == 0;
+						id >>>= 1;
+
+						if (request) {
+							// a ping or a callback of a plugin (plugins are not supported) --> empty response
+							this.outgoingPackets.add(new OutgoingPacket(id, false, Map.of(), 0, null));
 						} else {
-							throw new IllegalStateException("Received unknown packet!");
+							// the request might have been cancelled or timed out in the meantime
+							PendingRequest<?> pendingRequest = this.pendingRequests.remove(id);
+							if (pendingRequest != null) {
+								pendingRequest.complete(buffer);
+							}
 						}
 					}
 				} catch (IOException ex) {
@@ -127,8 +164,37 @@ public class EsBuild {
 
 				firstPacket = false;
 			}
+
+			// e.g. the process crashed (end of stream) --> not running anymore, also not for the pool
+			this.reading.set(false);
+			interruptWriteThread();
+			failPendingRequests();
 		});
 		this.readThread.setName("EsBuild Read Thread");
+
+		this.writeThread = new Thread(() -> {
+			List<OutgoingPacket> batch = new ArrayList<>();
+
+			while (this.reading.get()) {
+				try {
+					batch.add(this.outgoingPackets.take());
+				} catch (InterruptedException ex) {
+					break;
+				}
+
+				// everything that was queued in the meantime is sent together with a single write and flush
+				int batchSize = batch.get(0).expectedSize();
+				OutgoingPacket outgoingPacket;
+				while (batchSize < MAX_RETAINED_BUFFER_SIZE && (outgoingPacket = this.outgoingPackets.poll()) != null) {
+					batch.add(outgoingPacket);
+					batchSize += outgoingPacket.expectedSize();
+				}
+
+				send(batch, batchSize);
+				batch.clear();
+			}
+		});
+		this.writeThread.setName("EsBuild Write Thread");
 	}
 
 	public static String run(Path workDir, String... args) throws IOException, InterruptedException {
@@ -190,13 +256,7 @@ public class EsBuild {
 				instanceShareCounter++;
 				return instance;
 			} else {
-				String finalEsBuildVersion = Optional.ofNullable(esBuildVersion).orElse(ESBUILD_VERSION);
-				Path executable = Executable.copyToTarget(finalEsBuildVersion, workDir);
-
-				ProcessBuilder builder = new ProcessBuilder(executable.toString(), "--service=" + finalEsBuildVersion, "--ping").directory(workDir.toFile());
-				Process process = builder.redirectErrorStream(true).start();
-				EsBuild esBuild = new EsBuild(finalEsBuildVersion, process);
-				esBuild.readThread.start();
+				EsBuild esBuild = spawn(esBuildVersion, workDir, true);
 				
 				instance = esBuild;				
 				return esBuild;
@@ -204,65 +264,294 @@ public class EsBuild {
 		}
 	}
 
+	/**
+	 * Spawns a new esbuild service process that is not shared with other callers of {@code start(...)}.
+	 */
+	static EsBuild startUnshared(String esBuildVersion, Path workDir) throws IOException {
+		return spawn(esBuildVersion, workDir, false);
+	}
+
+	private static EsBuild spawn(String esBuildVersion, Path workDir, boolean shared) throws IOException {
+		String finalEsBuildVersion = Optional.ofNullable(esBuildVersion).orElse(ESBUILD_VERSION);
+		Path executable = Executable.copyToTarget(finalEsBuildVersion, workDir);
+
+		ProcessBuilder builder = new ProcessBuilder(executable.toString(), "--service=" + finalEsBuildVersion, "--ping").directory(workDir.toFile());
+		Process process = builder.redirectErrorStream(true).start();
+		EsBuild esBuild = new EsBuild(finalEsBuildVersion, workDir, process, shared);
+		esBuild.readThread.start();
+		esBuild.writeThread.start();
+		return esBuild;
+	}
+
 	public Future<TranspilationResult> transform(String fileName, String input, String... flags) throws IOException {
 		return transform(fileName, input.getBytes(StandardCharsets.UTF_8), flags);
 	}
 
 	public Future<TranspilationResult> transform(String fileName, byte[] inputBytes, String... flags) throws IOException {
-		List<String> allFlags = new ArrayList<>(STANDARD_TRANSFORM_FLAGS);
+		return transformAsync(fileName, inputBytes, flags);
+	}
+
+	public CompletableFuture<TranspilationResult> transformAsync(String fileName, byte[] inputBytes, Duration timeout,
+			String... flags) {
+		return transformAsync(fileName, inputBytes, flags).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The returned future is completed directly by the read thread. Cancelling the future (or a timeout) removes the
+	 * pending request, a late response of esbuild is then ignored.
+	 */
+	public CompletableFuture<TranspilationResult> transformAsync(String fileName, byte[] inputBytes, String... flags) {
+		return transformAsync(fileName, inputBytes, TransformOptions.of(flags));
+	}
+
+	/**
+	 * Like {@link #transformAsync(String, byte[], String...)}, but with flags that were encoded in advance.
+	 */
+	public CompletableFuture<TranspilationResult> transformAsync(String fileName, byte[] inputBytes,
+			TransformOptions options) {
+		return transformAsync(new TransformInput(fileName, inputBytes), options);
+	}
+
+	/**
+	 * Transforms all inputs with the same flags, the flags are encoded only once. At most {@code maxInFlight}
+	 * transforms are pending at any time, the next input is sent as soon as a result arrived. The callback receives
+	 * the results in completion order, if it returns {@code false} no further inputs are sent (but the results of the
+	 * pending transforms are still delivered). The returned future completes after the last callback.
+	 */
+	public CompletableFuture<Void> transformAll(Collection<TransformInput> inputs, int maxInFlight,
+			TransformCallback callback, String... flags) {
+		return transformAll(inputs, maxInFlight, callback, TransformOptions.of(flags));
+	}
+
+	public CompletableFuture<Void> transformAll(Collection<TransformInput> inputs, int maxInFlight,
+			TransformCallback callback, TransformOptions options) {
+		return new TransformBatch(inputs, input -> transformAsync(input, options), callback).start(maxInFlight);
+	}
+
+	/**
+	 * Only the flags that depend on the file name are encoded per transform.
+	 */
+	CompletableFuture<TranspilationResult> transformAsync(TransformInput input, TransformOptions options) {
+		EncodedStringArray allFlags = options.encodedFlags().with("--loader=" + getLoaderFromExtension(input.fileName()),
+				"--sourcefile=./" + input.fileName());
+
+		return sendRequestWithPacketDecoder(Map.of("command", "transform", //
+				"flags", allFlags, //
+				"input", ByteBuffer.wrap(input.inputBytes()), //
+				"inputFS", false), //
+				REQUEST_OVERHEAD + input.inputBytes().length + allFlags.length(),
+				packet -> toTranspilationResult(EsBuildProtocol.decodeTransformResponse(packet)));
+	}
+
+	/**
+	 * Builds the entry points (relative to the work dir or absolute) with the given flags (e.g. {@code --bundle},
+	 * {@code --splitting}, {@code --format=esm} and {@code --outdir=...}). Nothing is written to disk, the output files
+	 * are returned in memory instead.
+	 */
+	public CompletableFuture<BuildResult> buildAsync(Collection<Path> entryPoints, String... flags) {
+		int key = this.buildKey.incrementAndGet();
+		return sendBuildRequest(key, entryPoints, flags, false, EsBuild::toBuildResult);
+	}
+
+	/**
+	 * Creates a long-lived build context in this esbuild process. Every {@link BuildContext#rebuildAsync()} then only
+	 * re-parses the files that changed since the last build. The context has to be disposed when no longer needed.
+	 */
+	public CompletableFuture<BuildContext> contextAsync(Collection<Path> entryPoints, String... flags) {
+		int key = this.buildKey.incrementAndGet();
+		return sendBuildRequest(key, entryPoints, flags, true, response -> {
+			Optional<TranspilationError> error = toFirstError(response);
+			if (error.isPresent()) {
+				throw new IllegalStateException("Error creating the build context: " + error.get().message());
+			}
+			return new BuildContext(this, key);
+		});
+	}
+
+	private <T> CompletableFuture<T> sendBuildRequest(int key, Collection<Path> entryPoints, String[] flags,
+			boolean context, Function<Map<String, Object>, T> decoder) {
+		List<String> allFlags = new ArrayList<>(STANDARD_BUILD_FLAGS);
 		allFlags.addAll(Arrays.asList(flags));
-		allFlags.add("--loader=" + getLoaderFromExtension(fileName));
-		allFlags.add("--sourcefile=./" + fileName);
 
+		int expectedSize = REQUEST_OVERHEAD + this.workDir.toString().length();
+		for (String flag : allFlags) {
+			expectedSize += 5 + flag.length();
+		}
+		for (Path entryPoint : entryPoints) {
+			expectedSize += 20 + entryPoint.toString().length();
+		}
+
+		Map<String, Object> request = new HashMap<>();
+		request.put("command", "build");
+		request.put("key", key);
+		request.put("entries", entryPoints.stream().map(entryPoint -> new String[]{"", entryPoint.toString()})
+				.toArray(Object[]::new)); // [output path (only for named entry points), input path]
+		request.put("flags", allFlags.toArray(STRING_ARRAY_TYPE));
+		request.put("write", false);
+		request.put("stdinContents", null);
+		request.put("stdinResolveDir", null);
+		request.put("absWorkingDir", this.workDir.toString());
+		request.put("nodePaths", STRING_ARRAY_TYPE);
+		request.put("context", context);
+
+		return sendRequest(request, expectedSize, decoder);
+	}
+
+	/**
+	 * The response is decoded generically into a map.
+	 */
+	<T> CompletableFuture<T> sendRequest(Map<String, Object> request, int expectedSize,
+			Function<Map<String, Object>, T> decoder) {
+		return sendRequestWithPacketDecoder(request, expectedSize, packet -> {
+			Map<String, Object> response = EsBuildProtocol.decodePacket(packet).value();
+			if (response.get("error") instanceof String error) { // e.g. invalid flags
+				throw new IllegalStateException("esbuild error '" + error + "'!");
+			}
+			return decoder.apply(response);
+		});
+	}
+
+	private <T> CompletableFuture<T> sendRequestWithPacketDecoder(Map<String, Object> request, int expectedSize,
+			Function<ByteBuffer, T> packetDecoder) {
 		int nextRequestId = this.requestId.incrementAndGet();
 
-		CountDownLatch synchronizationLatch = new CountDownLatch(1);
-		this.synchronizationMap.put(nextRequestId, synchronizationLatch);
+		CompletableFuture<T> resultFuture = new CompletableFuture<>();
+		this.pendingRequests.put(nextRequestId, new PendingRequest<>(resultFuture, packetDecoder));
+		resultFuture.whenComplete((result, throwable) -> this.pendingRequests.remove(nextRequestId));
 
-		ByteBuffer transformRequest = EsBuildProtocol.encodePacket(nextRequestId, true, //
-				Map.of("command", "transform", //
-						"flags", allFlags.toArray(STRING_ARRAY_TYPE), //
-						"input", ByteBuffer.wrap(inputBytes), //
-						"inputFS", false));
+		this.outgoingPackets.add(new OutgoingPacket(nextRequestId, true, request, expectedSize, resultFuture));
 
-		// only a single thread at a time should do that to avoid corruption othe output stream
-		synchronized (this) {
-			this.process.getOutputStream().write(transformRequest.array(), 0, transformRequest.position());
-			this.process.getOutputStream().flush();
+		// a stop in the meantime would otherwise leave the request pending forever
+		if (!this.reading.get()) {
+			failPendingRequests();
+		}
+
+		return resultFuture;
+	}
+
+	private static TranspilationResult toTranspilationResult(TransformResponse response) {
+		if (response.error() != null) { // e.g. invalid flags
+			throw new IllegalStateException("esbuild error '" + response.error() + "'!");
 		}
 
-		FutureTask<TranspilationResult> resultWaitTask = new FutureTask<>(() -> {
-			synchronizationLatch.await();
-			EsBuild.this.synchronizationMap.remove(nextRequestId);
+		List<TranspilationMessage> errors = TranspilationMessage.of(response.errors());
+		if (!errors.isEmpty()) {
+			return new TranspilationResult(null, null, errors, response.encodedWarnings());
+		}
 
-			TranspilationResult result = EsBuild.this.resultMap.get(nextRequestId);
-			EsBuild.this.resultMap.remove(nextRequestId);
+		byte[] map = response.map();
+		return new TranspilationResult(response.code(), map == null || map.length == 0 ? null : map, errors,
+				response.encodedWarnings());
+	}
 
-			return result;
-		});
-		this.executor.submit(resultWaitTask);
-		return resultWaitTask;
+	static BuildResult toBuildResult(Map<String, Object> response) {
+		List<BuildResult.OutputFile> outputFiles = new ArrayList<>();
+		if (response.get("outputFiles") instanceof Object[] responseOutputFiles) {
+			for (Object responseOutputFile : responseOutputFiles) {
+				@SuppressWarnings("unchecked")
+				Map<String, Object> outputFile = (Map<String, Object>) responseOutputFile;
+				outputFiles.add(new BuildResult.OutputFile(Path.of((String) outputFile.get("path")),
+						((ByteBuffer) outputFile.get("contents")).array(), (String) outputFile.get("hash")));
+			}
+		}
+
+		return new BuildResult(outputFiles, Optional.ofNullable((String) response.get("metafile")),
+				toFirstError(response));
+	}
+
+	/**
+	 * Errors without a location (e.g. an entry point that could not be resolved) are reported for line 0.
+	 */
+	private static Optional<TranspilationError> toFirstError(Map<String, Object> response) {
+		List<TranspilationMessage> errors = TranspilationMessage.of((Object[]) response.get("errors"));
+		return errors.isEmpty() ? Optional.empty() : Optional.of(errors.get(0).toError());
+	}
+
+	/**
+	 * Encodes the packets back-to-back into the reused write buffer (sized upfront with the expected size) and sends
+	 * them with a single write and flush. Only called by the write thread.
+	 */
+	private void send(List<OutgoingPacket> batch, int batchSize) {
+		if (this.writeBuffer.capacity() > MAX_RETAINED_BUFFER_SIZE && batchSize <= INITIAL_BUFFER_SIZE) {
+			this.writeBuffer = new WriteByteBuffer(INITIAL_BUFFER_SIZE);
+		}
+		this.writeBuffer.clear().ensureRemaining(batchSize);
+
+		try {
+			for (OutgoingPacket outgoingPacket : batch) {
+				EsBuildProtocol.encodePacket(this.writeBuffer, outgoingPacket.id(), outgoingPacket.request(),
+						outgoingPacket.value());
+			}
+
+			this.process.getOutputStream().write(this.writeBuffer.array(), 0, this.writeBuffer.position());
+			this.process.getOutputStream().flush();
+		} catch (IOException | RuntimeException ex) {
+			if (this.reading.get()) {
+				this.logger.error("Error writing esbuild input.", ex);
+			}
+
+			for (OutgoingPacket outgoingPacket : batch) {
+				if (outgoingPacket.resultFuture() != null) {
+					outgoingPacket.resultFuture().completeExceptionally(ex);
+				}
+			}
+		}
+	}
+
+	private void interruptWriteThread() {
+		this.writeThread.interrupt();
+	}
+
+	private void failPendingRequests() {
+		for (Integer pendingRequestId : this.pendingRequests.keySet()) {
+			PendingRequest<?> pendingRequest = this.pendingRequests.remove(pendingRequestId);
+			if (pendingRequest != null) {
+				pendingRequest.resultFuture().completeExceptionally(
+						new IllegalStateException("esbuild is not running anymore!"));
+			}
+		}
 	}
 
 	private static String getLoaderFromExtension(String fileName) {
 		return fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
 	}
 	
+	public String version() {
+		return this.esBuildVersion;
+	}
+
+	/**
+	 * Number of requests that were sent but not yet answered by the esbuild process.
+	 */
+	int pendingRequests() {
+		return this.pendingRequests.size();
+	}
+	
 	public boolean isRunning() {
 		return this.reading.get();
 	}
 
 	public void stop() {
+		if (!this.shared) {
+			destroy();
+			return;
+		}
+
 		synchronized (INSTANCE_LOCK) {
 			if(instanceShareCounter > 0) {
 				instanceShareCounter--;
 			} else {
 				instance = null;
-				
-				this.reading.set(false);
-				this.readThread.interrupt();
-				this.process.destroy();
+				destroy();
 			}
 		}
 	}
+
+	private void destroy() {
+		this.reading.set(false);
+		this.readThread.interrupt();
+		this.writeThread.interrupt();
+		this.process.destroy();
+		failPendingRequests();
+	}
 }
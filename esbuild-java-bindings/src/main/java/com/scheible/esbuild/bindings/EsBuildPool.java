@@ -0,0 +1,161 @@
+package com.scheible.esbuild.bindings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiple esbuild service processes. Every transform (or build) is routed to the process with the fewest pending
+ * requests.
+ *
+ * @author sj
+ */
+public class EsBuildPool {
+
+	private final List<EsBuild> esBuilds;
+
+	private final AtomicInteger nextStartIndex = new AtomicInteger(0);
+
+	EsBuildPool(List<EsBuild> esBuilds) {
+		this.esBuilds = Collections.unmodifiableList(esBuilds);
+	}
+
+	public static EsBuildPool start() throws IOException {
+		return start(null, Path.of("."), defaultSize());
+	}
+
+	public static EsBuildPool start(Path workDir) throws IOException {
+		return start(null, workDir, defaultSize());
+	}
+
+	public static EsBuildPool start(String esBuildVersion, Path workDir) throws IOException {
+		return start(esBuildVersion, workDir, defaultSize());
+	}
+
+	public static EsBuildPool start(String esBuildVersion, Path workDir, int size) throws IOException {
+		if (size < 1) {
+			throw new IllegalArgumentException("The pool size must be at least 1 but was " + size + "!");
+		}
+
+		List<EsBuild> esBuilds = new ArrayList<>(size);
+		try {
+			for (int i = 0; i < size; i++) {
+				esBuilds.add(EsBuild.startUnshared(esBuildVersion, workDir));
+			}
+		} catch (IOException | RuntimeException ex) {
+			esBuilds.forEach(EsBuild::stop);
+			throw ex;
+		}
+
+		return new EsBuildPool(esBuilds);
+	}
+
+	/**
+	 * One process per available processor.
+	 */
+	public static int defaultSize() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	public Future<TranspilationResult> transform(String fileName, String input, String... flags) throws IOException {
+		return transform(fileName, input.getBytes(StandardCharsets.UTF_8), flags);
+	}
+
+	public Future<TranspilationResult> transform(String fileName, byte[] inputBytes, String... flags) throws IOException {
+		return leastLoaded().transform(fileName, inputBytes, flags);
+	}
+
+	public CompletableFuture<TranspilationResult> transformAsync(String fileName, byte[] inputBytes, Duration timeout,
+			String... flags) {
+		return leastLoaded().transformAsync(fileName, inputBytes, timeout, flags);
+	}
+
+	public CompletableFuture<TranspilationResult> transformAsync(String fileName, byte[] inputBytes, String... flags) {
+		return leastLoaded().transformAsync(fileName, inputBytes, flags);
+	}
+
+	public CompletableFuture<TranspilationResult> transformAsync(String fileName, byte[] inputBytes,
+			TransformOptions options) {
+		return leastLoaded().transformAsync(fileName, inputBytes, options);
+	}
+
+	public CompletableFuture<BuildResult> buildAsync(Collection<Path> entryPoints, String... flags) {
+		return leastLoaded().buildAsync(entryPoints, flags);
+	}
+
+	/**
+	 * Like {@link EsBuild#transformAll(Collection, int, TransformCallback, String...)}, but every transform is routed
+	 * to the process with the fewest pending requests.
+	 */
+	public CompletableFuture<Void> transformAll(Collection<TransformInput> inputs, int maxInFlight,
+			TransformCallback callback, String... flags) {
+		return transformAll(inputs, maxInFlight, callback, TransformOptions.of(flags));
+	}
+
+	public CompletableFuture<Void> transformAll(Collection<TransformInput> inputs, int maxInFlight,
+			TransformCallback callback, TransformOptions options) {
+		return new TransformBatch(inputs, input -> leastLoaded().transformAsync(input, options), callback)
+				.start(maxInFlight);
+	}
+
+	/**
+	 * The context is created in the process with the fewest pending requests and stays there.
+	 */
+	public CompletableFuture<BuildContext> contextAsync(Collection<Path> entryPoints, String... flags) {
+		return leastLoaded().contextAsync(entryPoints, flags);
+	}
+
+	/**
+	 * Returns the running process with the fewest pending requests. The search starts at a rotating index to spread
+	 * the load if multiple processes are equally loaded. A crashed process has no pending requests and is skipped, it
+	 * would otherwise get all the traffic. If no process is running anymore, the requests fail on the first one.
+	 */
+	EsBuild leastLoaded() {
+		int startIndex = Math.floorMod(this.nextStartIndex.getAndIncrement(), this.esBuilds.size());
+
+		EsBuild leastLoaded = this.esBuilds.get(0);
+		int leastPendingRequests = Integer.MAX_VALUE;
+		for (int i = 0; i < this.esBuilds.size(); i++) {
+			EsBuild esBuild = this.esBuilds.get((startIndex + i) % this.esBuilds.size());
+			if (!esBuild.isRunning()) {
+				continue;
+			}
+
+			int pendingRequests = esBuild.pendingRequests();
+			if (pendingRequests < leastPendingRequests) {
+				leastLoaded = esBuild;
+				leastPendingRequests = pendingRequests;
+
+				if (pendingRequests == 0) {
+					break;
+				}
+			}
+		}
+
+		return leastLoaded;
+	}
+
+	public String version() {
+		return this.esBuilds.get(0).version();
+	}
+
+	public int size() {
+		return this.esBuilds.size();
+	}
+
+	public boolean isRunning() {
+		return this.esBuilds.stream().allMatch(EsBuild::isRunning);
+	}
+
+	public void stop() {
+		this.esBuilds.forEach(EsBuild::stop);
+	}
+}
@@ -3,7 +3,9 @@ package com.scheible.esbuild.bindings;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,6 +18,35 @@ class EsBuildProtocol {
 
 	}
 
+	/**
+	 * The fields of a transform response that are actually used. Code and source map are the raw UTF-8 bytes. The
+	 * warnings are kept as the still encoded array (or {@code null} if there are none) because a successful transform
+	 * might have warnings that are never looked at. The error is only present if esbuild rejected the request (e.g.
+	 * invalid flags).
+	 */
+	record TransformResponse(byte[] code, byte[] map, Object[] errors, byte[] encodedWarnings, String error) {
+
+	}
+
+	/**
+	 * A string array whose leading items are already encoded (e.g. flags shared by many requests), followed by
+	 * further items that are encoded as usual.
+	 */
+	record EncodedStringArray(byte[] encodedItems, int encodedItemCount, String... items) {
+
+		EncodedStringArray with(String... items) {
+			return new EncodedStringArray(this.encodedItems, this.encodedItemCount, items);
+		}
+
+		int length() {
+			int length = 1 + 4 + this.encodedItems.length;
+			for (String item : this.items) {
+				length += 1 + 4 + item.length();
+			}
+			return length;
+		}
+	}
+
 	private static final byte NULL_TYPE = 0;
 	private static final byte BOOLEAN_TYPE = 1;
 	private static final byte INTEGER_TYPE = 2;
@@ -24,20 +55,45 @@ class EsBuildProtocol {
 	private static final byte ARRAY_TYPE = 5;
 	private static final byte MAP_TYPE = 6;
 
+	private static final byte[] CODE_KEY = "code".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] MAP_KEY = "map".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ERRORS_KEY = "errors".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] WARNINGS_KEY = "warnings".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ERROR_KEY = "error".getBytes(StandardCharsets.US_ASCII);
+
 	/**
 	 * Encode packet including leading length.
 	 */
 	static ByteBuffer encodePacket(int id, boolean request, Map<String, Object> value) {
 		WriteByteBuffer buffer = new WriteByteBuffer(1024);
+		encodePacket(buffer, id, request, value);
+
+		return ByteBuffer.wrap(buffer.array(), 0, buffer.position()).order(ByteOrder.LITTLE_ENDIAN)
+				.position(buffer.position());
+	}
+
+	/**
+	 * Encode packet including leading length into a (reused) buffer. The packet is appended at the current position,
+	 * that allows to encode multiple packets back-to-back.
+	 */
+	static void encodePacket(WriteByteBuffer buffer, int id, boolean request, Map<String, Object> value) {
+		int start = buffer.position();
+		buffer.ensureRemaining(4 + 4);
 		buffer.putInt(0); // length not yet known
 		buffer.putInt(id << 1 | (request ? 0 : 1));
 
 		EsBuildProtocol.write(buffer, value);
 
-		buffer.putInt(0, buffer.position() - 4); // now we know the length
+		buffer.putInt(start, buffer.position() - start - 4); // now we know the length
+	}
 
-		return ByteBuffer.wrap(buffer.array(), 0, buffer.position()).order(ByteOrder.LITTLE_ENDIAN)
-				.position(buffer.position());
+	static EncodedStringArray encodeStringArray(List<String> items) {
+		WriteByteBuffer buffer = new WriteByteBuffer(1024);
+		for (String item : items) {
+			writeString(buffer, item, true);
+		}
+
+		return new EncodedStringArray(Arrays.copyOf(buffer.array(), buffer.position()), items.size());
 	}
 
 	private static void write(WriteByteBuffer buffer, Object value) {
@@ -52,6 +108,12 @@ class EsBuildProtocol {
 		} else if (value instanceof ByteBuffer byteBuffer) {
 			buffer.ensureRemaining(1 + 4 + byteBuffer.capacity())
 					.put(BYTE_BUFFER_TYPE).putInt(byteBuffer.capacity()).put(byteBuffer);
+		} else if (value instanceof EncodedStringArray array) {
+			buffer.ensureRemaining(1 + 4 + array.encodedItems().length).put(ARRAY_TYPE)
+					.putInt(array.encodedItemCount() + array.items().length).put(array.encodedItems());
+			for (String item : array.items()) {
+				writeString(buffer, item, true);
+			}
 		} else if (value.getClass().isArray()) {
 			writeArray(buffer, (Object[]) value);
 		} else if (value instanceof Map) {
@@ -63,13 +125,16 @@ class EsBuildProtocol {
 		}
 	}
 
+	/**
+	 * Encodes the string as UTF-8 directly into the buffer (no intermediate byte array).
+	 */
 	private static void writeString(WriteByteBuffer buffer, String string, boolean writeType) {
-		byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
-		buffer.ensureRemaining((writeType ? 1 : 0) + 4 + stringBytes.length);
+		int utf8Length = WriteByteBuffer.utf8Length(string);
+		buffer.ensureRemaining((writeType ? 1 : 0) + 4 + utf8Length);
 		if (writeType) {
 			buffer.put(STRING_TYPE);
 		}
-		buffer.putInt(stringBytes.length).put(stringBytes);
+		buffer.putInt(utf8Length).putUtf8(string);
 	}
 
 	private static void writeArray(WriteByteBuffer buffer, Object[] array) {
@@ -105,6 +170,105 @@ class EsBuildProtocol {
 		}
 	}
 
+	/**
+	 * Decode transform response packet without leading length in a single pass. Only the used fields are read, the
+	 * keys are compared as bytes and all other values are skipped without materializing them. The errors are decoded
+	 * generically (they are empty for a successful transform), the warnings only when accessed.
+	 */
+	static TransformResponse decodeTransformResponse(ByteBuffer buffer) {
+		buffer.getInt(); // id
+		if (buffer.get() != MAP_TYPE) {
+			throw new IllegalStateException("Only packets of type map are supported!");
+		}
+
+		byte[] code = null;
+		byte[] map = null;
+		Object[] errors = null;
+		byte[] encodedWarnings = null;
+		String error = null;
+
+		int entryCount = buffer.getInt();
+		for (int i = 0; i < entryCount; i++) {
+			int keyLength = buffer.getInt();
+			int keyPosition = buffer.position();
+			buffer.position(keyPosition + keyLength);
+			byte type = buffer.get(buffer.position());
+
+			if (type == STRING_TYPE && isKey(buffer, keyPosition, keyLength, CODE_KEY)) {
+				buffer.get();
+				code = readRawString(buffer);
+			} else if (type == STRING_TYPE && isKey(buffer, keyPosition, keyLength, MAP_KEY)) {
+				buffer.get();
+				map = readRawString(buffer);
+			} else if (type == ARRAY_TYPE && isKey(buffer, keyPosition, keyLength, ERRORS_KEY)) {
+				buffer.get();
+				errors = readArray(buffer);
+			} else if (type == ARRAY_TYPE && isKey(buffer, keyPosition, keyLength, WARNINGS_KEY)) {
+				int warningsPosition = buffer.position();
+				skip(buffer);
+				if (buffer.getInt(warningsPosition + 1) > 0) {
+					encodedWarnings = new byte[buffer.position() - warningsPosition];
+					buffer.get(warningsPosition, encodedWarnings);
+				}
+			} else if (type == STRING_TYPE && isKey(buffer, keyPosition, keyLength, ERROR_KEY)) {
+				buffer.get();
+				error = readString(buffer);
+			} else {
+				skip(buffer);
+			}
+		}
+
+		return new TransformResponse(code, map, errors, encodedWarnings, error);
+	}
+
+	private static boolean isKey(ByteBuffer buffer, int keyPosition, int keyLength, byte[] key) {
+		if (keyLength != key.length) {
+			return false;
+		}
+
+		for (int i = 0; i < keyLength; i++) {
+			if (buffer.get(keyPosition + i) != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Advances the buffer behind the next value without decoding it.
+	 */
+	static void skip(ByteBuffer buffer) {
+		short type = Byte.valueOf(buffer.get()).shortValue();
+		switch (type) {
+			case NULL_TYPE -> {
+			}
+			case BOOLEAN_TYPE ->
+				buffer.position(buffer.position() + 1);
+			case INTEGER_TYPE ->
+				buffer.position(buffer.position() + 4);
+			case STRING_TYPE, BYTE_BUFFER_TYPE -> {
+				int length = buffer.getInt();
+				buffer.position(buffer.position() + length);
+			}
+			case ARRAY_TYPE -> {
+				int arrayLength = buffer.getInt();
+				for (int i = 0; i < arrayLength; i++) {
+					skip(buffer);
+				}
+			}
+			case MAP_TYPE -> {
+				int entryCount = buffer.getInt();
+				for (int i = 0; i < entryCount; i++) {
+					int keyLength = buffer.getInt();
+					buffer.position(buffer.position() + keyLength);
+					skip(buffer);
+				}
+			}
+			default ->
+				throw new IllegalArgumentException("Unknown type " + type + "!");
+		}
+	}
+
 	private static Object read(ByteBuffer buffer) {
 		short type = Byte.valueOf(buffer.get()).shortValue();
 		return switch (type) {
@@ -127,13 +291,30 @@ class EsBuildProtocol {
 		};
 	}
 
+	/**
+	 * Decodes the UTF-8 string in bulk directly from the (backing array of the) buffer.
+	 */
 	static String readString(ByteBuffer buffer) {
 		int textLength = buffer.getInt();
-		StringBuilder stringBuilder = new StringBuilder();
-		for (int i = 0; i < textLength; i++) {
-			stringBuilder.append((char) buffer.get());
+		int position = buffer.position();
+
+		String string = buffer.hasArray()
+				? new String(buffer.array(), buffer.arrayOffset() + position, textLength, StandardCharsets.UTF_8)
+				: StandardCharsets.UTF_8.decode(buffer.slice(position, textLength)).toString();
+
+		buffer.position(position + textLength);
+		return string;
+	}
+
+	/**
+	 * Decodes an array that was kept encoded (including its type).
+	 */
+	static Object[] decodeArray(byte[] encodedArray) {
+		ByteBuffer buffer = ByteBuffer.wrap(encodedArray).order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.get() != ARRAY_TYPE) {
+			throw new IllegalArgumentException("Not an encoded array!");
 		}
-		return stringBuilder.toString();
+		return readArray(buffer);
 	}
 
 	static Object[] readArray(ByteBuffer buffer) {
@@ -156,6 +337,16 @@ class EsBuildProtocol {
 		return map;
 	}
 
+	/**
+	 * Copies the UTF-8 bytes of the string in bulk from the buffer.
+	 */
+	static byte[] readRawString(ByteBuffer buffer) {
+		int textLength = buffer.getInt();
+		byte[] textBytes = new byte[textLength];
+		buffer.get(textBytes);
+		return textBytes;
+	}
+
 	static ByteBuffer readByteBuffer(ByteBuffer buffer) {
 		int bufferLength = buffer.getInt();
 		byte[] bufferBytes = new byte[bufferLength];
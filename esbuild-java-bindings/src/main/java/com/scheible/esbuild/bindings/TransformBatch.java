@@ -0,0 +1,104 @@
+package com.scheible.esbuild.bindings;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Sends the inputs with a limited number of pending transforms, the next input is sent when a result arrived. Only one
+ * thread at a time sends, a result that arrives while sending (e.g. an already completed future) only frees its slot
+ * for the sending thread. That way there is no recursion, no matter how many results complete immediately.
+ *
+ * @author sj
+ */
+class TransformBatch {
+
+	private final Iterator<TransformInput> inputs;
+	private final Function<TransformInput, CompletableFuture<TranspilationResult>> transformer;
+	private final TransformCallback callback;
+
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	private int freeSlots = 0; // guarded by this
+	private int pendingTransforms = 0; // guarded by this
+	private boolean sending = false; // guarded by this
+	private boolean stopped = false; // guarded by this
+
+	TransformBatch(Collection<TransformInput> inputs,
+			Function<TransformInput, CompletableFuture<TranspilationResult>> transformer, TransformCallback callback) {
+		this.inputs = inputs.iterator();
+		this.transformer = transformer;
+		this.callback = callback;
+	}
+
+	CompletableFuture<Void> start(int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("At least one transform must be in-flight but was " + maxInFlight + "!");
+		}
+
+		synchronized (this) {
+			this.freeSlots = maxInFlight;
+		}
+		send();
+
+		return this.completion;
+	}
+
+	private void send() {
+		synchronized (this) {
+			if (this.sending) {
+				return; // the sending thread picks up the freed slot
+			}
+			this.sending = true;
+		}
+
+		while (true) {
+			TransformInput input;
+			synchronized (this) {
+				boolean done = this.stopped || !this.inputs.hasNext();
+				if (done || this.freeSlots == 0) {
+					this.sending = false;
+					if (done && this.pendingTransforms == 0) {
+						this.completion.complete(null);
+					}
+					return;
+				}
+
+				input = this.inputs.next();
+				this.freeSlots--;
+				this.pendingTransforms++;
+			}
+
+			CompletableFuture<TranspilationResult> resultFuture;
+			try {
+				resultFuture = this.transformer.apply(input);
+			} catch (RuntimeException ex) {
+				this.completion.completeExceptionally(ex);
+				release(false);
+				continue;
+			}
+
+			resultFuture.whenComplete((result, throwable) -> transformed(input, result, throwable));
+		}
+	}
+
+	private void transformed(TransformInput input, TranspilationResult result, Throwable throwable) {
+		boolean proceed;
+		try {
+			proceed = this.callback.transformed(input, result, throwable);
+		} catch (RuntimeException ex) {
+			proceed = false;
+			this.completion.completeExceptionally(ex);
+		}
+
+		release(proceed);
+		send();
+	}
+
+	private synchronized void release(boolean proceed) {
+		this.pendingTransforms--;
+		this.freeSlots++;
+		this.stopped |= !proceed;
+	}
+}
@@ -0,0 +1,16 @@
+package com.scheible.esbuild.bindings;
+
+/**
+ * Receives the results of a batch of transforms. Called by the read thread of esbuild (of multiple processes in case
+ * of a pool concurrently) and must therefore not block.
+ *
+ * @author sj
+ */
+@FunctionalInterface
+public interface TransformCallback {
+
+	/**
+	 * Either the result or the throwable is present. Returns {@code false} to not send any further inputs.
+	 */
+	boolean transformed(TransformInput input, TranspilationResult result, Throwable throwable);
+}
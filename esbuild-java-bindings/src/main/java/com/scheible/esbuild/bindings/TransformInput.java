@@ -0,0 +1,10 @@
+package com.scheible.esbuild.bindings;
+
+/**
+ * The file name determines the loader (e.g. {@code ts} or {@code tsx}) and is used in the source map.
+ *
+ * @author sj
+ */
+public record TransformInput(String fileName, byte[] inputBytes) {
+
+}
@@ -0,0 +1,86 @@
+package com.scheible.esbuild.bindings;
+
+import com.scheible.esbuild.bindings.EsBuildProtocol.EncodedStringArray;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable transform flags that are encoded only once in the protocol format. Intended to be created once (e.g. with
+ * the raw tsconfig) and reused for all transforms, only the flags that depend on the file name are then encoded per
+ * transform.
+ *
+ * @author sj
+ */
+public final class TransformOptions {
+
+	private static final List<String> STANDARD_FLAGS = List.of("--log-level=silent", "--log-limit=0");
+
+	private final List<String> flags;
+	private final EncodedStringArray encodedFlags;
+	private final byte[] flagsDigest;
+
+	private TransformOptions(List<String> flags) {
+		this.flags = flags;
+
+		List<String> allFlags = new ArrayList<>(STANDARD_FLAGS);
+		allFlags.addAll(flags);
+		this.encodedFlags = EsBuildProtocol.encodeStringArray(allFlags);
+		this.flagsDigest = digest(flags);
+	}
+
+	public static TransformOptions of(String... flags) {
+		return new TransformOptions(List.of(flags));
+	}
+
+	/**
+	 * The options of a transform for the browser, the output flags (e.g. source maps or minification) follow the
+	 * platform and the raw tsconfig. The dev-server and the Maven plugin both create their options here, their cache
+	 * keys for the shared disk cache then match for the same output flags.
+	 */
+	public static TransformOptions forBrowser(String tsConfigJson, List<String> outputFlags) {
+		List<String> flags = new ArrayList<>(List.of("--platform=browser", "--tsconfig-raw=" + tsConfigJson));
+		flags.addAll(outputFlags);
+		return new TransformOptions(List.copyOf(flags));
+	}
+
+	/**
+	 * The flags without the standard flags that are always passed to esbuild.
+	 */
+	public List<String> flags() {
+		return this.flags;
+	}
+
+	/**
+	 * SHA-256 hash of the flags in the given order (esbuild lets the last of duplicate flags win, so the order can
+	 * change the output). Computed once, cache keys only have to combine it with the file name and the content.
+	 */
+	public byte[] flagsDigest() {
+		return this.flagsDigest.clone();
+	}
+
+	EncodedStringArray encodedFlags() {
+		return this.encodedFlags;
+	}
+
+	private static byte[] digest(List<String> flags) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String flag : flags) {
+				digest.update(flag.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+			return digest.digest();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TransformOptions" + Arrays.toString(this.flags.toArray());
+	}
+}
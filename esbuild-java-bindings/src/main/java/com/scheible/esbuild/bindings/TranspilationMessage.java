@@ -0,0 +1,102 @@
+package com.scheible.esbuild.bindings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An error or warning of esbuild with its location (if any) and the notes that belong to it. Lines are 1-based,
+ * columns are 0-based and like the length counted in UTF-8 bytes.
+ *
+ * @author sj
+ */
+public record TranspilationMessage(String text, Optional<Location> location, List<Note> notes) {
+
+	public record Location(String file, int line, int column, int length, String lineText, String suggestion) {
+
+		/**
+		 * The column as offset in the UTF-16 chars of the line text (e.g. to render a caret below the line).
+		 */
+		public int lineTextColumn() {
+			return toChars(this.lineText, 0, this.column);
+		}
+
+		/**
+		 * The length in UTF-16 chars of the line text, starting at the {@link #lineTextColumn()}.
+		 */
+		public int lineTextLength() {
+			return toChars(this.lineText, lineTextColumn(), this.length);
+		}
+
+		/**
+		 * The number of chars starting at the char index that are encoded by the UTF-8 bytes (at most the rest of the
+		 * text).
+		 */
+		private static int toChars(String text, int charIndex, int utf8Bytes) {
+			int index = charIndex;
+			int bytes = 0;
+			while (index < text.length() && bytes < utf8Bytes) {
+				int codePoint = text.codePointAt(index);
+				bytes += codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+				index += Character.charCount(codePoint);
+			}
+			return index - charIndex;
+		}
+	}
+
+	public record Note(String text, Optional<Location> location) {
+
+	}
+
+	public TranspilationError toError() {
+		return this.location.map(loc -> new TranspilationError(loc.line(), loc.column(), this.text, loc.lineText()))
+				.orElseGet(() -> new TranspilationError(0, 0, this.text, ""));
+	}
+
+	/**
+	 * Converts the messages of a generically decoded esbuild response.
+	 */
+	static List<TranspilationMessage> of(Object[] messages) {
+		if (messages == null || messages.length == 0) {
+			return List.of();
+		}
+
+		List<TranspilationMessage> result = new ArrayList<>(messages.length);
+		for (Object message : messages) {
+			@SuppressWarnings("unchecked")
+			Map<String, Object> messageMap = (Map<String, Object>) message;
+
+			List<Note> notes = new ArrayList<>();
+			if (messageMap.get("notes") instanceof Object[] messageNotes) {
+				for (Object note : messageNotes) {
+					@SuppressWarnings("unchecked")
+					Map<String, Object> noteMap = (Map<String, Object>) note;
+					notes.add(new Note((String) noteMap.get("text"), toLocation(noteMap.get("location"))));
+				}
+			}
+
+			result.add(new TranspilationMessage((String) messageMap.get("text"), toLocation(messageMap.get("location")),
+					List.copyOf(notes)));
+		}
+		return List.copyOf(result);
+	}
+
+	private static Optional<Location> toLocation(Object location) {
+		if (location instanceof Map<?, ?> locationMap) {
+			return Optional.of(new Location(toText(locationMap.get("file")), toInt(locationMap.get("line")),
+					toInt(locationMap.get("column")), toInt(locationMap.get("length")),
+					toText(locationMap.get("lineText")), toText(locationMap.get("suggestion"))));
+		} else {
+			return Optional.empty();
+		}
+	}
+
+	private static String toText(Object value) {
+		return value instanceof String text ? text : "";
+	}
+
+	private static int toInt(Object value) {
+		return value instanceof Integer integer ? integer : 0;
+	}
+}
@@ -1,15 +1,153 @@
 package com.scheible.esbuild.bindings;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 
 /**
+ * The source map is only present if transformed with {@code --sourcemap=external} (or {@code --sourcemap}). Results
+ * of esbuild keep the code and the source map as UTF-8 bytes, they are only decoded when accessed as strings. That
+ * way e.g. a servlet can write the code to the response without decoding and encoding it again. All errors and
+ * warnings are available with their full location, the warnings of esbuild are only decoded when accessed (a
+ * successful transform usually doesn't look at them).
  *
  * @author sj
  */
-public record TranspilationResult(Optional<String> code, Optional<TranspilationError> error) {
+public final class TranspilationResult {
+
+	private final byte[] codeBytes;
+	private final byte[] mapBytes;
+	private final Optional<TranspilationError> error;
+	private final List<TranspilationMessage> errors;
+	private final byte[] encodedWarnings;
+
+	private volatile List<TranspilationMessage> warnings;
+
+	public TranspilationResult(Optional<String> code, Optional<String> map, Optional<TranspilationError> error) {
+		this(code.map(TranspilationResult::toBytes).orElse(null), map.map(TranspilationResult::toBytes).orElse(null),
+				error, error.map(TranspilationResult::toMessage).map(List::of).orElse(List.of()), null, List.of());
+	}
+
+	public TranspilationResult(Optional<String> code, Optional<TranspilationError> error) {
+		this(code, Optional.empty(), error);
+	}
+
+	public TranspilationResult(Optional<String> code, Optional<String> map, List<TranspilationMessage> errors,
+			List<TranspilationMessage> warnings) {
+		this(code.map(TranspilationResult::toBytes).orElse(null), map.map(TranspilationResult::toBytes).orElse(null),
+				toFirstError(errors), List.copyOf(errors), null, List.copyOf(warnings));
+	}
+
+	/**
+	 * The warnings are passed still encoded ({@code null} if there are none).
+	 */
+	TranspilationResult(byte[] codeBytes, byte[] mapBytes, List<TranspilationMessage> errors, byte[] encodedWarnings) {
+		this(codeBytes, mapBytes, toFirstError(errors), errors, encodedWarnings,
+				encodedWarnings == null ? List.of() : null);
+	}
+
+	private TranspilationResult(byte[] codeBytes, byte[] mapBytes, Optional<TranspilationError> error,
+			List<TranspilationMessage> errors, byte[] encodedWarnings, List<TranspilationMessage> warnings) {
+		this.codeBytes = codeBytes;
+		this.mapBytes = mapBytes;
+		this.error = error;
+		this.errors = errors;
+		this.encodedWarnings = encodedWarnings;
+		this.warnings = warnings;
+	}
+
+	public Optional<String> code() {
+		return Optional.ofNullable(this.codeBytes).map(TranspilationResult::toText);
+	}
+
+	/**
+	 * The code as UTF-8 bytes without a copy, the returned array must not be modified.
+	 */
+	public Optional<byte[]> codeBytes() {
+		return Optional.ofNullable(this.codeBytes);
+	}
+
+	public Optional<String> map() {
+		return Optional.ofNullable(this.mapBytes).map(TranspilationResult::toText);
+	}
+
+	/**
+	 * The source map as UTF-8 bytes without a copy, the returned array must not be modified.
+	 */
+	public Optional<byte[]> mapBytes() {
+		return Optional.ofNullable(this.mapBytes);
+	}
+
+	/**
+	 * The first error (if any), all errors are returned by {@link #errors()}.
+	 */
+	public Optional<TranspilationError> error() {
+		return this.error;
+	}
+
+	public List<TranspilationMessage> errors() {
+		return this.errors;
+	}
+
+	public List<TranspilationMessage> warnings() {
+		List<TranspilationMessage> decodedWarnings = this.warnings;
+		if (decodedWarnings == null) {
+			// decoding twice in a race is harmless
+			decodedWarnings = TranspilationMessage.of(EsBuildProtocol.decodeArray(this.encodedWarnings));
+			this.warnings = decodedWarnings;
+		}
+		return decodedWarnings;
+	}
 
 	public String codeOrElse(Function<TranspilationError, String> errorFormatter) {
-		return code.orElseGet(() -> errorFormatter.apply(error.get()));
+		return code().orElseGet(() -> errorFormatter.apply(this.error.get()));
+	}
+
+	public byte[] codeBytesOrElse(Function<TranspilationError, String> errorFormatter) {
+		return codeBytes().orElseGet(() -> toBytes(errorFormatter.apply(this.error.get())));
+	}
+
+	private static Optional<TranspilationError> toFirstError(List<TranspilationMessage> errors) {
+		return errors.isEmpty() ? Optional.empty() : Optional.of(errors.get(0).toError());
+	}
+
+	private static TranspilationMessage toMessage(TranspilationError error) {
+		return new TranspilationMessage(error.message(), Optional.of(new TranspilationMessage.Location("",
+				error.line(), error.column(), 0, error.codeLine(), "")), List.of());
+	}
+
+	private static byte[] toBytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String toText(byte[] bytes) {
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof TranspilationResult other) {
+			return Arrays.equals(this.codeBytes, other.codeBytes) && Arrays.equals(this.mapBytes, other.mapBytes)
+					&& this.error.equals(other.error) && this.errors.equals(other.errors)
+					&& warnings().equals(other.warnings());
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(Arrays.hashCode(this.codeBytes), Arrays.hashCode(this.mapBytes), this.error, this.errors);
+	}
+
+	@Override
+	public String toString() {
+		return "TranspilationResult[code=" + code() + ", map=" + map() + ", errors=" + this.errors + ", warnings="
+				+ warnings() + "]";
 	}
 }
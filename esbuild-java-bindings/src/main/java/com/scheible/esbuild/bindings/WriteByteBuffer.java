@@ -38,6 +38,69 @@ class WriteByteBuffer {
 		return this;
 	}
 
+	/**
+	 * Encodes the string as UTF-8 directly into the buffer, the capacity must have been ensured upfront with
+	 * {@link #utf8Length(String)}. Unpaired surrogates are replaced by '?' like {@link String#getBytes} does.
+	 */
+	WriteByteBuffer putUtf8(String string) {
+		byte[] array = this.delegate.array();
+		int position = this.delegate.arrayOffset() + this.delegate.position();
+
+		int length = string.length();
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				array[position++] = (byte) c;
+			} else if (c < 0x800) {
+				array[position++] = (byte) (0xc0 | (c >> 6));
+				array[position++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, string.charAt(++i));
+					array[position++] = (byte) (0xf0 | (codePoint >> 18));
+					array[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+					array[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+					array[position++] = (byte) (0x80 | (codePoint & 0x3f));
+				} else {
+					array[position++] = '?';
+				}
+			} else {
+				array[position++] = (byte) (0xe0 | (c >> 12));
+				array[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				array[position++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+
+		this.delegate.position(position - this.delegate.arrayOffset());
+		return this;
+	}
+
+	/**
+	 * Number of bytes of the UTF-8 encoding of the string.
+	 */
+	static int utf8Length(String string) {
+		int length = string.length();
+		int utf8Length = length;
+
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			if (c >= 0x80) {
+				if (c < 0x800) {
+					utf8Length += 1;
+				} else if (Character.isSurrogate(c)) {
+					if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+						utf8Length += 2; // 4 bytes for two chars
+						i++;
+					}
+				} else {
+					utf8Length += 2;
+				}
+			}
+		}
+
+		return utf8Length;
+	}
+
 	WriteByteBuffer putInt(int value) {
 		this.delegate.putInt(value);
 		return this;
@@ -48,6 +111,18 @@ class WriteByteBuffer {
 		return this;
 	}
 
+	/**
+	 * Resets the position to 0 to reuse the buffer (and its capacity) for the next packet.
+	 */
+	WriteByteBuffer clear() {
+		this.delegate.clear();
+		return this;
+	}
+
+	int capacity() {
+		return this.delegate.capacity();
+	}
+
 	byte[] array() {
 		return this.delegate.array();
 	}
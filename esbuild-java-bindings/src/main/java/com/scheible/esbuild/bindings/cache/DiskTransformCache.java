@@ -0,0 +1,216 @@
+package com.scheible.esbuild.bindings.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache with one file per entry (named by the hash of the key). Entries are read completely into a byte
+ * array (they are small and copied anyway), the last modified time of a file is its last usage. If the size limit is
+ * exceeded the least recently used entries are deleted until the cache is down to {@value #LOW_WATER_MARK_PERCENT}% of
+ * the limit, the directory then isn't scanned on every further write. Multiple processes (e.g. the dev-server and the
+ * Maven plugin) can share the same directory because entries are written to a temporary file first and then atomically
+ * moved.
+ *
+ * @author sj
+ */
+public class DiskTransformCache implements TransformCache {
+
+	public static final String DEFAULT_DIRECTORY_NAME = "esbuild-cache";
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	private static final int LOW_WATER_MARK_PERCENT = 90;
+
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final Path directory;
+	private final long maxBytes;
+
+	private long bytes;
+	private int entries;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	public DiskTransformCache(Path directory, long maxBytes) throws IOException {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("The size limit must not be negative but was " + maxBytes + "!");
+		}
+
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+
+		Files.createDirectories(directory);
+		List<CacheFile> cacheFiles = listCacheFiles();
+		this.bytes = cacheFiles.stream().mapToLong(CacheFile::size).sum();
+		this.entries = cacheFiles.size();
+	}
+
+	@Override
+	public Optional<byte[]> get(TransformCacheKey key) {
+		Path file = this.directory.resolve(key.hash());
+
+		try {
+			byte[] output = Files.readAllBytes(file);
+
+			touch(file);
+			synchronized (this) {
+				this.hits++;
+			}
+			return Optional.of(output);
+		} catch (NoSuchFileException ex) {
+			synchronized (this) {
+				this.misses++;
+			}
+			return Optional.empty();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public void put(TransformCacheKey key, byte[] output) {
+		if (output.length > this.maxBytes) {
+			return;
+		}
+
+		Path file = this.directory.resolve(key.hash());
+		try {
+			Path tempFile = Files.createTempFile(this.directory, key.hash(), TEMP_FILE_SUFFIX);
+			Files.write(tempFile, output);
+
+			long previousSize = sizeIfExists(file);
+			try {
+				Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException ex) {
+				// on Windows a file that is read by another process at the moment can't be replaced, the content is the
+				// same anyway
+				Files.deleteIfExists(tempFile);
+				return;
+			}
+
+			synchronized (this) {
+				if (previousSize < 0) {
+					this.bytes += output.length;
+					this.entries++;
+				} else {
+					this.bytes += output.length - previousSize;
+				}
+
+				if (this.bytes > this.maxBytes) {
+					evict();
+				}
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public void remove(TransformCacheKey key) {
+		Path file = this.directory.resolve(key.hash());
+		try {
+			long size = Files.size(file);
+			if (Files.deleteIfExists(file)) {
+				synchronized (this) {
+					this.bytes -= size;
+					this.entries--;
+				}
+			}
+		} catch (NoSuchFileException ex) {
+			// already removed
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until the low-water mark is reached.
+	 */
+	private void evict() throws IOException {
+		long lowWaterMark = this.maxBytes * LOW_WATER_MARK_PERCENT / 100;
+
+		List<CacheFile> cacheFiles = listCacheFiles();
+		cacheFiles.sort(Comparator.comparing(CacheFile::lastModified));
+
+		this.bytes = cacheFiles.stream().mapToLong(CacheFile::size).sum();
+		this.entries = cacheFiles.size();
+
+		for (CacheFile cacheFile : cacheFiles) {
+			if (this.bytes <= lowWaterMark) {
+				break;
+			}
+
+			try {
+				if (Files.deleteIfExists(cacheFile.file())) {
+					this.bytes -= cacheFile.size();
+					this.entries--;
+					this.evictions++;
+				}
+			} catch (IOException ex) {
+				this.logger.debug("Could not evict '{}' from the transform cache.", cacheFile.file(), ex);
+			}
+		}
+	}
+
+	private List<CacheFile> listCacheFiles() throws IOException {
+		List<CacheFile> cacheFiles = new ArrayList<>();
+		try (Stream<Path> files = Files.list(this.directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				if (Files.isRegularFile(file) && !file.getFileName().toString().endsWith(TEMP_FILE_SUFFIX)) {
+					try {
+						cacheFiles.add(new CacheFile(file, Files.size(file), Files.getLastModifiedTime(file)));
+					} catch (NoSuchFileException ex) {
+						// evicted concurrently by another process
+					}
+				}
+			}
+		}
+		return cacheFiles;
+	}
+
+	/**
+	 * Returns -1 if the file does not exist.
+	 */
+	private static long sizeIfExists(Path file) throws IOException {
+		try {
+			return Files.size(file);
+		} catch (NoSuchFileException ex) {
+			return -1;
+		}
+	}
+
+	private static void touch(Path file) {
+		try {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException ex) {
+			// the usage time is only a hint for the eviction
+		}
+	}
+
+	@Override
+	public synchronized CacheStatistics statistics() {
+		return new CacheStatistics(this.hits, this.misses, this.evictions, this.entries, this.bytes);
+	}
+
+	public Path directory() {
+		return this.directory;
+	}
+
+	private record CacheFile(Path file, long size, FileTime lastModified) {
+
+	}
+}
@@ -0,0 +1,74 @@
+package com.scheible.esbuild.bindings.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory cache with a byte budget. The least recently used entries are evicted if the budget is exceeded.
+ *
+ * @author sj
+ */
+public class MemoryTransformCache implements TransformCache {
+
+	private final long maxBytes;
+
+	private final LinkedHashMap<TransformCacheKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes = 0;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	public MemoryTransformCache(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("The byte budget must not be negative but was " + maxBytes + "!");
+		}
+
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	public synchronized Optional<byte[]> get(TransformCacheKey key) {
+		byte[] output = this.entries.get(key);
+		if (output != null) {
+			this.hits++;
+		} else {
+			this.misses++;
+		}
+
+		return Optional.ofNullable(output);
+	}
+
+	@Override
+	public synchronized void put(TransformCacheKey key, byte[] output) {
+		if (output.length > this.maxBytes) {
+			return;
+		}
+
+		byte[] previous = this.entries.put(key, output);
+		this.bytes += output.length - (previous != null ? previous.length : 0);
+
+		Iterator<Map.Entry<TransformCacheKey, byte[]>> iterator = this.entries.entrySet().iterator();
+		while (this.bytes > this.maxBytes && iterator.hasNext()) {
+			Map.Entry<TransformCacheKey, byte[]> eldest = iterator.next();
+			iterator.remove();
+			this.bytes -= eldest.getValue().length;
+			this.evictions++;
+		}
+	}
+
+	@Override
+	public synchronized void remove(TransformCacheKey key) {
+		byte[] output = this.entries.remove(key);
+		if (output != null) {
+			this.bytes -= output.length;
+		}
+	}
+
+	@Override
+	public synchronized CacheStatistics statistics() {
+		return new CacheStatistics(this.hits, this.misses, this.evictions, this.entries.size(), this.bytes);
+	}
+}
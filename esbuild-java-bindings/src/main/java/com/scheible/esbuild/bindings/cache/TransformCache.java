@@ -0,0 +1,26 @@
+package com.scheible.esbuild.bindings.cache;
+
+import java.util.Optional;
+
+/**
+ * Cache for the transpiled output (UTF-8 bytes) of a transform.
+ *
+ * @author sj
+ */
+public interface TransformCache {
+
+	Optional<byte[]> get(TransformCacheKey key);
+
+	void put(TransformCacheKey key, byte[] output);
+
+	/**
+	 * Removes the entry (if any), e.g. because the source file has changed and the output is stale.
+	 */
+	void remove(TransformCacheKey key);
+
+	CacheStatistics statistics();
+
+	record CacheStatistics(long hits, long misses, long evictions, int entries, long bytes) {
+
+	}
+}
@@ -0,0 +1,58 @@
+package com.scheible.esbuild.bindings.cache;
+
+import com.scheible.esbuild.bindings.TransformOptions;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 hash of everything that influences the output of a transform: the esbuild version, the file name (used for
+ * the loader and the source map), the flags (including the raw tsconfig) and the file content. The flags are hashed
+ * in their order and enter the key as the digest that {@link TransformOptions} computes only once.
+ *
+ * @author sj
+ */
+public record TransformCacheKey(String hash) {
+
+	private static final byte SEPARATOR = 0;
+
+	public static TransformCacheKey of(String esBuildVersion, String fileName, byte[] inputBytes, String... flags) {
+		return of(esBuildVersion, fileName, inputBytes, TransformOptions.of(flags));
+	}
+
+	/**
+	 * Same key as for the flags of the options.
+	 */
+	public static TransformCacheKey of(String esBuildVersion, String fileName, byte[] inputBytes,
+			TransformOptions options) {
+		MessageDigest digest = newDigest();
+
+		update(digest, esBuildVersion);
+		update(digest, fileName);
+		digest.update(options.flagsDigest());
+		digest.update(inputBytes);
+
+		return new TransformCacheKey(HexFormat.of().formatHex(digest.digest()));
+	}
+
+	/**
+	 * A key for a further output of the same transform (e.g. the source map).
+	 */
+	public TransformCacheKey derive(String outputName) {
+		return new TransformCacheKey(this.hash + "." + outputName);
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update(SEPARATOR);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
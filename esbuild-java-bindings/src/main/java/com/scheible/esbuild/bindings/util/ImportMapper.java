@@ -37,6 +37,13 @@ public class ImportMapper {
 		return Map.entry(toBareImport(parts), toJavaScriptUrl(parts, prefixPlaceHolderName));
 	}
 
+	/**
+	 * Converts a relative path to a bare import without a file extension.
+	 */
+	public static String toBareImport(Path scriptFile) {
+		return toBareImport(toParts(scriptFile));
+	}
+
 	/**
 	 * Converts the file parts to a bare import without a file extension.
 	 */
@@ -0,0 +1,72 @@
+package com.scheible.esbuild.bindings.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight scanner for the specifiers of static {@code import} and {@code export ... from} statements. Type-only
+ * imports and dynamic {@code import()} calls are ignored. It is not a full parser, but good enough for the regular
+ * output of esbuild (and most hand-written TypeScript).
+ *
+ * @author sj
+ */
+public class ImportScanner {
+
+	private static final Pattern STATIC_IMPORT = Pattern.compile("(?<![\\w$.])(?:(?:import|export)\\s*(type\\s+)?"
+			+ "[\\w$*{}\\s,]*?\\s*from\\s*|import\\s*)(['\"])([^'\"\\r\\n]+)\\2");
+
+	/**
+	 * Returns the specifiers in the order of their appearance, duplicates are removed.
+	 */
+	public static List<String> scan(String code) {
+		List<String> specifiers = new ArrayList<>();
+
+		Matcher matcher = STATIC_IMPORT.matcher(stripComments(code));
+		while (matcher.find()) {
+			String specifier = matcher.group(3);
+			if (matcher.group(1) == null && !specifiers.contains(specifier)) {
+				specifiers.add(specifier);
+			}
+		}
+
+		return specifiers;
+	}
+
+	/**
+	 * Replaces all comments with a single whitespace, string literals are kept as they are.
+	 */
+	static String stripComments(String code) {
+		StringBuilder stripped = new StringBuilder(code.length());
+
+		int i = 0;
+		while (i < code.length()) {
+			char c = code.charAt(i);
+			char next = i + 1 < code.length() ? code.charAt(i + 1) : 0;
+
+			if (c == '/' && next == '/') {
+				int end = code.indexOf('\n', i);
+				i = end < 0 ? code.length() : end;
+				stripped.append(' ');
+			} else if (c == '/' && next == '*') {
+				int end = code.indexOf("*/", i + 2);
+				i = end < 0 ? code.length() : end + 2;
+				stripped.append(' ');
+			} else if (c == '\'' || c == '"' || c == '`') {
+				int end = i + 1;
+				while (end < code.length() && code.charAt(end) != c) {
+					end += code.charAt(end) == '\\' ? 2 : 1;
+				}
+				end = Math.min(end + 1, code.length());
+				stripped.append(code, i, end);
+				i = end;
+			} else {
+				stripped.append(c);
+				i++;
+			}
+		}
+
+		return stripped.toString();
+	}
+}
@@ -0,0 +1,112 @@
+package com.scheible.esbuild.bindings.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The static imports between the modules, keyed by the bare import of the modules (like in the import map). Relative
+ * specifiers are resolved to bare imports as well. Allows to preload the whole import tree of an entry module at once
+ * instead of the browser discovering it one level at a time.
+ *
+ * @author sj
+ */
+public class ModuleGraph {
+
+	private static final List<String> SCRIPT_EXTENSIONS = List.of(".js", ".mjs", ".jsx", ".ts", ".tsx");
+
+	private final Map<String, List<String>> imports;
+
+	public ModuleGraph(Map<String, List<String>> imports) {
+		Map<String, List<String>> copiedImports = new LinkedHashMap<>();
+		imports.forEach((module, moduleImports) -> copiedImports.put(module, List.copyOf(moduleImports)));
+		this.imports = copiedImports;
+	}
+
+	/**
+	 * Creates the graph by scanning the code of all modules (keyed by their bare import).
+	 */
+	public static ModuleGraph scan(Map<String, String> moduleCodes) {
+		Map<String, List<String>> imports = new LinkedHashMap<>();
+		moduleCodes.forEach((module, code) -> imports.put(module, scanImports(module, code)));
+		return new ModuleGraph(imports);
+	}
+
+	/**
+	 * The distinct static imports of a single module, resolved to bare imports. Allows to scan only the modules that
+	 * changed and to keep the imports of all others.
+	 */
+	public static List<String> scanImports(String module, String code) {
+		List<String> moduleImports = new ArrayList<>();
+		for (String specifier : ImportScanner.scan(code)) {
+			String resolved = resolve(module, specifier);
+			if (!moduleImports.contains(resolved)) {
+				moduleImports.add(resolved);
+			}
+		}
+		return List.copyOf(moduleImports);
+	}
+
+	/**
+	 * Resolves a relative specifier (like {@code ./util.js}) against the bare import of the importing module. All
+	 * other specifiers are returned unchanged.
+	 */
+	static String resolve(String importer, String specifier) {
+		if (!specifier.startsWith("./") && !specifier.startsWith("../")) {
+			return specifier;
+		}
+
+		Deque<String> parts = new ArrayDeque<>(List.of(importer.split("/")));
+		parts.removeLast(); // the file name of the importer
+
+		for (String part : specifier.split("/")) {
+			if ("..".equals(part)) {
+				if (parts.size() > 1) { // the root ('~') is kept
+					parts.removeLast();
+				}
+			} else if (!".".equals(part) && !part.isEmpty()) {
+				parts.addLast(part);
+			}
+		}
+
+		String fileName = parts.removeLast();
+		for (String extension : SCRIPT_EXTENSIONS) {
+			if (fileName.endsWith(extension)) {
+				fileName = fileName.substring(0, fileName.length() - extension.length());
+				break;
+			}
+		}
+		parts.addLast(fileName);
+
+		return String.join("/", parts);
+	}
+
+	/**
+	 * All modules that are (transitively) imported by the entry module, ordered by their import depth. The entry
+	 * module itself is not part of the result.
+	 */
+	public List<String> transitiveImports(String entryModule) {
+		Set<String> visited = new LinkedHashSet<>();
+		Deque<String> pending = new ArrayDeque<>(List.of(entryModule));
+
+		while (!pending.isEmpty()) {
+			String module = pending.removeFirst();
+			for (String imported : this.imports.getOrDefault(module, List.of())) {
+				if (!imported.equals(entryModule) && visited.add(imported)) {
+					pending.addLast(imported);
+				}
+			}
+		}
+
+		return List.copyOf(visited);
+	}
+
+	public Map<String, List<String>> imports() {
+		return this.imports;
+	}
+}
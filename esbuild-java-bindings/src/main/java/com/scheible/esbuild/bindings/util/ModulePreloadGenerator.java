@@ -0,0 +1,15 @@
+package com.scheible.esbuild.bindings.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the URLs for {@code <link rel="modulepreload">} of all modules that are (transitively) imported by an
+ * entry module. Same params as for the {@link ImportMapGenerator}.
+ *
+ * @author sj
+ */
+public interface ModulePreloadGenerator {
+
+	List<String> generate(String entryImport, Map<String, String> params);
+}
@@ -0,0 +1,83 @@
+package com.scheible.esbuild.bindings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class EsBuildPoolTest {
+
+	@Test
+	void testParallelTransformSuccess() throws IOException, InterruptedException, ExecutionException {
+		EsBuildPool esBuildPool = EsBuildPool.start(null, Path.of("."), 2);
+
+		List<Future<TranspilationResult>> resultFutures = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			resultFutures.add(esBuildPool.transform("test.ts", "function func" + i + "(text: string) {}"));
+		}
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(resultFutures.get(i).get().code().get()).contains("func" + i);
+		}
+
+		assertThat(esBuildPool.isRunning()).isTrue();
+		esBuildPool.stop();
+		assertThat(esBuildPool.isRunning()).isFalse();
+	}
+
+	@Test
+	void testStoppedProcessIsSkipped() throws IOException, InterruptedException, ExecutionException {
+		EsBuild stopped = EsBuild.startUnshared(null, Path.of("."));
+		EsBuild running = EsBuild.startUnshared(null, Path.of("."));
+		stopped.stop();
+		EsBuildPool esBuildPool = new EsBuildPool(List.of(stopped, running));
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(esBuildPool.leastLoaded()).isSameAs(running);
+		}
+		assertThat(esBuildPool.transform("test.ts", "function func(text: string) {}").get().code()).isPresent();
+
+		esBuildPool.stop();
+	}
+
+	@Test
+	void testCrashedProcessIsNotRunning() throws IOException, InterruptedException {
+		Set<ProcessHandle> otherProcesses = ProcessHandle.current().children().collect(Collectors.toSet());
+		EsBuild esBuild = EsBuild.startUnshared(null, Path.of("."));
+		ProcessHandle.current().children().filter(process -> !otherProcesses.contains(process))
+				.forEach(ProcessHandle::destroyForcibly);
+
+		await(() -> !esBuild.isRunning());
+		assertThatThrownBy(() -> esBuild.transformAsync("test.ts", new byte[0]).join())
+				.hasCauseInstanceOf(IllegalStateException.class);
+
+		esBuild.stop();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	void testInvalidSize() {
+		assertThatThrownBy(() -> EsBuildPool.start(null, Path.of("."), 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
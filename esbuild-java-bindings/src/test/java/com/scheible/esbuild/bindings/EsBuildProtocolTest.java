@@ -1,8 +1,13 @@
 package com.scheible.esbuild.bindings;
 
 import com.scheible.esbuild.bindings.EsBuildProtocol.Packet;
+import com.scheible.esbuild.bindings.EsBuildProtocol.TransformResponse;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
@@ -35,6 +40,98 @@ class EsBuildProtocolTest {
 		assertThat(packet.value().get("map")).isEqualTo(Map.of("nested", "value"));
 	}
 
+	@Test
+	void testEncodedStringArrayLikeArray() {
+		ByteBuffer expected = EsBuildProtocol.encodePacket(1, true, Map.of("flags", new String[]{"--a", "--ä=b", "--c"}));
+		ByteBuffer encoded = EsBuildProtocol.encodePacket(1, true, Map.of("flags",
+				EsBuildProtocol.encodeStringArray(List.of("--a", "--ä=b")).with("--c")));
+
+		assertThat(encoded.slice(0, encoded.position())).isEqualTo(expected.slice(0, expected.position()));
+	}
+
+	@Test
+	void testDecodeTransformResponseSkipsUnusedFields() {
+		String code = "const text = 'äöü';\n";
+		Map<String, Object> response = new HashMap<>();
+		response.put("code", code);
+		response.put("map", "");
+		response.put("errors", new Object[]{});
+		response.put("warnings", new Object[]{Map.of("text", "warning", "location", Map.of("line", 1))});
+		response.put("legalComments", "");
+		response.put("mangleCache", null);
+		response.put("unknown", new Object[]{1, true, ByteBuffer.wrap(new byte[]{1}), Map.of("code", "nested")});
+		ByteBuffer encoded = EsBuildProtocol.encodePacket(1, false, response);
+
+		encoded = encoded.slice(0, encoded.position()).order(ByteOrder.LITTLE_ENDIAN);
+		encoded.getInt(); // skip length
+		TransformResponse transformResponse = EsBuildProtocol.decodeTransformResponse(encoded);
+
+		assertThat(encoded.hasRemaining()).isFalse();
+		assertThat(transformResponse.code()).isEqualTo(code.getBytes(StandardCharsets.UTF_8));
+		assertThat(transformResponse.map()).isEmpty();
+		assertThat(transformResponse.errors()).isEmpty();
+		assertThat(EsBuildProtocol.decodeArray(transformResponse.encodedWarnings())).containsExactly(Map.of("text",
+				"warning", "location", Map.of("line", 1)));
+		assertThat(transformResponse.error()).isNull();
+	}
+
+	@Test
+	void testUtf8RoundTrip() {
+		String text = "ascii äöü ß € 中文 \uD83D\uDE00 end";
+		ByteBuffer encoded = EsBuildProtocol.encodePacket(1, true, Map.of("text", text));
+
+		encoded = encoded.slice(0, encoded.position()).order(ByteOrder.LITTLE_ENDIAN);
+		encoded.getInt(); // skip length
+		Packet packet = EsBuildProtocol.decodePacket(encoded);
+
+		assertThat(packet.value().get("text")).isEqualTo(text);
+	}
+
+	@Test
+	void testUtf8EncodingLikeStringGetBytes() {
+		for (String text : new String[]{"", "abc", "äöü", "€", "\uD83D\uDE00", "unpaired \uD83D high", "unpaired \uDE00 low",
+			"trailing \uD83D"}) {
+			byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+
+			WriteByteBuffer buffer = new WriteByteBuffer(1);
+			buffer.ensureRemaining(WriteByteBuffer.utf8Length(text));
+			buffer.putUtf8(text);
+
+			assertThat(WriteByteBuffer.utf8Length(text)).isEqualTo(expected.length);
+			assertThat(Arrays.copyOf(buffer.array(), buffer.position())).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void testEncodeIntoReusedBuffer() {
+		WriteByteBuffer buffer = new WriteByteBuffer(16);
+		EsBuildProtocol.encodePacket(buffer, 1, true, Map.of("input", ByteBuffer.wrap(new byte[4096])));
+		EsBuildProtocol.encodePacket(buffer.clear(), 2, false, Map.of("text", "äöü"));
+
+		ByteBuffer expected = EsBuildProtocol.encodePacket(2, false, Map.of("text", "äöü"));
+		assertThat(buffer.capacity()).isGreaterThan(4096);
+		assertThat(Arrays.copyOf(buffer.array(), buffer.position()))
+				.isEqualTo(Arrays.copyOf(expected.array(), expected.position()));
+	}
+
+	@Test
+	void testEncodeBackToBack() {
+		WriteByteBuffer buffer = new WriteByteBuffer(16);
+		EsBuildProtocol.encodePacket(buffer, 1, true, Map.of("text", "first"));
+		EsBuildProtocol.encodePacket(buffer, 2, true, Map.of("text", "second"));
+
+		ByteBuffer encoded = ByteBuffer.wrap(buffer.array(), 0, buffer.position()).order(ByteOrder.LITTLE_ENDIAN);
+		int firstLength = encoded.getInt();
+		Packet first = EsBuildProtocol.decodePacket(encoded.slice(4, firstLength).order(ByteOrder.LITTLE_ENDIAN));
+		encoded.position(4 + firstLength);
+		encoded.getInt(); // skip length
+		Packet second = EsBuildProtocol.decodePacket(encoded);
+
+		assertThat(first.value().get("text")).isEqualTo("first");
+		assertThat(second.id()).isEqualTo(2);
+		assertThat(second.value().get("text")).isEqualTo("second");
+	}
+
 	@Test
 	void testDecodeTransformCommand() {
 		ByteBuffer commandBuffer = convertUnsignedBytes(new short[]{241, 0, 0, 0, 2, 0, 0, 0, 6, 4, 0, 0, 0, 7, 0,
@@ -72,6 +169,22 @@ class EsBuildProtocolTest {
 		assertThat(packet.value().containsKey("code")).isTrue();
 	}
 
+	@Test
+	void testDecodeTransformResponseSpecialized() {
+		ByteBuffer responseBuffer = convertUnsignedBytes(new short[]{3, 0, 0, 0, 6, 6, 0, 0, 0, 4, 0, 0, 0, 99, 111,
+			100, 101, 3, 26, 0, 0, 0, 102, 117, 110, 99, 116, 105, 111, 110, 32, 115, 101, 99, 111, 110, 100, 40, 116,
+			101, 120, 116, 41, 32, 123, 10, 125, 10, 6, 0, 0, 0, 99, 111, 100, 101, 70, 83, 1, 0, 6, 0, 0, 0, 101, 114,
+			114, 111, 114, 115, 5, 0, 0, 0, 0, 3, 0, 0, 0, 109, 97, 112, 3, 0, 0, 0, 0, 5, 0, 0, 0, 109, 97, 112, 70,
+			83, 1, 0, 8, 0, 0, 0, 119, 97, 114, 110, 105, 110, 103, 115, 5, 0, 0, 0, 0});
+
+		TransformResponse response = EsBuildProtocol.decodeTransformResponse(responseBuffer);
+
+		assertThat(new String(response.code(), StandardCharsets.UTF_8)).isEqualTo("function second(text) {\n}\n");
+		assertThat(response.map()).isEmpty();
+		assertThat(response.errors()).isEmpty();
+		assertThat(response.encodedWarnings()).isNull();
+	}
+
 	private static ByteBuffer convertUnsignedBytes(short[] unsignedBytes) {
 		ByteBuffer byteBuffer = ByteBuffer.allocate(unsignedBytes.length).order(ByteOrder.LITTLE_ENDIAN);
 
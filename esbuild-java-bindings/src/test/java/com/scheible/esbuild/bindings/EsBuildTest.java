@@ -1,12 +1,23 @@
 package com.scheible.esbuild.bindings;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  *
@@ -24,6 +35,20 @@ class EsBuildTest {
 		assertThat(result.error()).isEmpty();
 	}
 	
+	@Test
+	void testTransformExternalSourceMap() throws IOException, InterruptedException, ExecutionException {
+		EsBuild esBuild = EsBuild.start();
+		TranspilationResult externalResult = esBuild.transform("test.ts", "function doIt(text: string) {}",
+				"--sourcemap=external").get();
+		TranspilationResult inlineResult = esBuild.transform("test.ts", "function doIt(text: string) {}",
+				"--sourcemap=inline").get();
+		esBuild.stop();
+
+		assertThat(externalResult.map()).hasValueSatisfying(map -> assertThat(map).contains("test.ts"));
+		assertThat(inlineResult.map()).isEmpty();
+		assertThat(inlineResult.code().get()).contains("sourceMappingURL=data:");
+	}
+
 	@Test
 	void testMultipleTransformSuccess() throws IOException, InterruptedException, ExecutionException {
 		EsBuild esBuild = EsBuild.start();
@@ -39,6 +64,92 @@ class EsBuildTest {
 		assertThat(secondResult.code().get()).contains("second");
 	}
 	
+	@Test
+	void testTransformAsyncSuccess() throws IOException, InterruptedException, ExecutionException {
+		EsBuild esBuild = EsBuild.start();
+		TranspilationResult result = esBuild.transformAsync("test.ts",
+				"function doIt(text: string) {}".getBytes(StandardCharsets.UTF_8), Duration.ofSeconds(10)).get();
+		esBuild.stop();
+
+		assertThat(result.code()).isPresent();
+	}
+
+	@Test
+	void testTransformAsyncWithOptions() throws IOException {
+		TransformOptions options = TransformOptions.of("--sourcemap=inline");
+
+		EsBuild esBuild = EsBuild.start();
+		TranspilationResult firstResult = esBuild.transformAsync("first.ts",
+				"const first: string = 'first';".getBytes(StandardCharsets.UTF_8), options).join();
+		TranspilationResult secondResult = esBuild.transformAsync("second.tsx",
+				"const second: string = 'second';".getBytes(StandardCharsets.UTF_8), options).join();
+		esBuild.stop();
+
+		assertThat(firstResult.code().get()).contains("first").contains("sourceMappingURL");
+		assertThat(secondResult.code().get()).contains("second").contains("sourceMappingURL");
+	}
+
+	@Test
+	void testConcurrentTransformAsyncSuccess() throws IOException {
+		EsBuild esBuild = EsBuild.start();
+		List<CompletableFuture<TranspilationResult>> resultFutures = IntStream.range(0, 100).parallel()
+				.mapToObj(i -> esBuild.transformAsync("test.ts",
+						("function func" + i + "(text: string) {}").getBytes(StandardCharsets.UTF_8)))
+				.toList();
+		CompletableFuture.allOf(resultFutures.toArray(CompletableFuture[]::new)).join();
+		esBuild.stop();
+
+		for (int i = 0; i < resultFutures.size(); i++) {
+			assertThat(resultFutures.get(i).join().code().get()).contains("func" + i + "(");
+		}
+	}
+
+	@Test
+	void testTransformAll() throws IOException {
+		List<TransformInput> inputs = IntStream.range(0, 50).mapToObj(i -> new TransformInput("test" + i + ".ts",
+				("function func" + i + "(text: string) {}").getBytes(StandardCharsets.UTF_8))).toList();
+		Map<String, String> codes = new ConcurrentHashMap<>();
+
+		EsBuild esBuild = EsBuild.start();
+		esBuild.transformAll(inputs, 4, (input, result, throwable) -> {
+			codes.put(input.fileName(), result.code().get());
+			return true;
+		}, "--sourcemap=inline").join();
+		esBuild.stop();
+
+		assertThat(codes).hasSize(inputs.size());
+		assertThat(codes.get("test7.ts")).contains("func7(");
+	}
+
+	@Test
+	void testTransformAllStop() throws IOException {
+		List<TransformInput> inputs = IntStream.range(0, 50).mapToObj(i -> new TransformInput("test.ts",
+				(i == 0 ? "@" : "function func(text: string) {}").getBytes(StandardCharsets.UTF_8))).toList();
+		AtomicInteger transformed = new AtomicInteger(0);
+
+		EsBuild esBuild = EsBuild.start();
+		esBuild.transformAll(inputs, 1, (input, result, throwable) -> {
+			transformed.incrementAndGet();
+			return result.error().isEmpty();
+		}).join();
+		esBuild.stop();
+
+		assertThat(transformed).hasValue(1);
+	}
+
+	@Test
+	void testTransformAsyncCancel() throws IOException {
+		EsBuild esBuild = EsBuild.start();
+		CompletableFuture<TranspilationResult> resultFuture = esBuild.transformAsync("test.ts",
+				"function doIt(text: string) {}".getBytes(StandardCharsets.UTF_8));
+		resultFuture.cancel(false);
+		int pendingRequests = esBuild.pendingRequests();
+		esBuild.stop();
+
+		assertThat(resultFuture).isCancelled();
+		assertThat(pendingRequests).isZero();
+	}
+
 	@Test
 	void testTransformError() throws IOException, InterruptedException, ExecutionException {
 		EsBuild esBuild = EsBuild.start();
@@ -47,8 +158,79 @@ class EsBuildTest {
 		
 		assertThat(result.code()).isEmpty();
 		assertThat(result.error()).isPresent();
+		assertThat(result.errors()).isNotEmpty();
+		assertThat(result.errors().get(0).location()).hasValueSatisfying(location -> {
+			assertThat(location.line()).isEqualTo(1);
+			assertThat(location.lineText()).isEqualTo("function doIt(text@: string) {}");
+		});
+		assertThat(result.error()).contains(result.errors().get(0).toError());
+	}
+
+	@Test
+	void testTransformWarning() throws IOException, InterruptedException, ExecutionException {
+		EsBuild esBuild = EsBuild.start();
+		TranspilationResult result = esBuild.transform("test.ts", "let x = 1; if (x === -0) {}").get();
+		esBuild.stop();
+
+		assertThat(result.code()).isPresent();
+		assertThat(result.errors()).isEmpty();
+		assertThat(result.warnings()).hasSize(1);
+		assertThat(result.warnings().get(0).text()).contains("-0");
+		assertThat(result.warnings().get(0).location()).hasValueSatisfying(location
+				-> assertThat(location.column()).isEqualTo(17));
 	}
 	
+	@Test
+	void testBuildAsync(@TempDir Path tempDir) throws IOException {
+		Files.writeString(tempDir.resolve("shared.ts"), "export function shared() { return 'shared'; }");
+		Path firstEntryPoint = Files.writeString(tempDir.resolve("first.ts"),
+				"import { shared } from './shared';\nconsole.log('first', shared());");
+		Path secondEntryPoint = Files.writeString(tempDir.resolve("second.ts"),
+				"import { shared } from './shared';\nconsole.log('second', shared());");
+		Path outDir = tempDir.resolve("out");
+
+		EsBuild esBuild = EsBuild.start();
+		BuildResult result = esBuild.buildAsync(List.of(firstEntryPoint, secondEntryPoint), "--bundle",
+				"--splitting", "--format=esm", "--outdir=" + outDir).join();
+		esBuild.stop();
+
+		assertThat(result.error()).isEmpty();
+		Map<String, String> outputs = result.outputFiles().stream().collect(Collectors.toMap(outputFile
+				-> outDir.relativize(outputFile.path()).toString(), BuildResult.OutputFile::text));
+
+		// the module imported by both entry points is split into a shared chunk
+		assertThat(outputs).hasSize(3).containsKeys("first.js", "second.js");
+		String chunk = outputs.keySet().stream().filter(output -> output.startsWith("chunk-")).findFirst().get();
+		assertThat(chunk).endsWith(".js");
+		assertThat(outputs.get(chunk)).contains("shared");
+		assertThat(outputs.get("first.js")).contains("./" + chunk).doesNotContain("return \"shared\"");
+		assertThat(outputs.get("second.js")).contains("./" + chunk).doesNotContain("return \"shared\"");
+	}
+
+	@Test
+	void testBuildContext(@TempDir Path tempDir) throws IOException {
+		Path entryPoint = Files.writeString(tempDir.resolve("main.ts"), "const first = 1;");
+
+		EsBuild esBuild = EsBuild.start();
+		try {
+			BuildContext buildContext = esBuild.contextAsync(List.of(entryPoint), "--bundle",
+					"--outdir=" + tempDir.resolve("out")).join();
+
+			assertThat(buildContext.rebuildAsync().join().outputFiles()).singleElement()
+					.satisfies(outputFile -> assertThat(outputFile.text()).contains("first"));
+
+			Files.writeString(entryPoint, "const second = 2;");
+			assertThat(buildContext.rebuildAsync().join().outputFiles()).singleElement()
+					.satisfies(outputFile -> assertThat(outputFile.text()).contains("second"));
+
+			buildContext.close();
+			assertThat(buildContext.isDisposed()).isTrue();
+			assertThat(buildContext.rebuildAsync()).isCompletedExceptionally();
+		} finally {
+			esBuild.stop();
+		}
+	}
+
 	@Test
 	void testMultipleStartStop() throws IOException, InterruptedException, ExecutionException {
 		EsBuild firstEsBuild = EsBuild.start();
@@ -0,0 +1,61 @@
+package com.scheible.esbuild.bindings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class TransformBatchTest {
+
+	@Test
+	void testManyImmediatelyCompletedTransforms() {
+		List<TransformInput> inputs = inputs(100_000);
+		AtomicInteger transformed = new AtomicInteger(0);
+
+		new TransformBatch(inputs, input -> CompletableFuture.completedFuture(new TranspilationResult(Optional.of(""),
+				Optional.empty())), (input, result, throwable) -> transformed.incrementAndGet() > 0).start(4).join();
+
+		assertThat(transformed.get()).isEqualTo(inputs.size());
+	}
+
+	@Test
+	void testThrowingTransformerFailsBatch() {
+		AtomicInteger transformed = new AtomicInteger(0);
+
+		CompletableFuture<Void> completion = new TransformBatch(inputs(10), input -> {
+			throw new IllegalStateException("Process stopped!");
+		}, (input, result, throwable) -> transformed.incrementAndGet() > 0).start(4);
+
+		assertThatThrownBy(completion::join).isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(transformed.get()).isZero();
+	}
+
+	@Test
+	void testStopByCallback() {
+		AtomicInteger transformed = new AtomicInteger(0);
+
+		new TransformBatch(inputs(10), input -> CompletableFuture.completedFuture(new TranspilationResult(
+				Optional.of(""), Optional.empty())), (input, result, throwable) -> transformed.incrementAndGet() < 3)
+				.start(1).join();
+
+		assertThat(transformed.get()).isEqualTo(3);
+	}
+
+	private static List<TransformInput> inputs(int count) {
+		List<TransformInput> inputs = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			inputs.add(new TransformInput("test" + i + ".ts", new byte[0]));
+		}
+		return inputs;
+	}
+}
@@ -0,0 +1,34 @@
+package com.scheible.esbuild.bindings;
+
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class TransformOptionsTest {
+
+	@Test
+	void testFlagsDigestComputedOnce() {
+		TransformOptions options = TransformOptions.of("--platform=browser", "--minify");
+
+		assertThat(options.flagsDigest()).hasSize(32).isEqualTo(TransformOptions.of("--platform=browser", "--minify")
+				.flagsDigest()).isNotEqualTo(TransformOptions.of("--platform=node").flagsDigest());
+		options.flagsDigest()[0]++; // only a copy is returned
+		assertThat(options.flagsDigest()).isEqualTo(TransformOptions.of("--platform=browser", "--minify").flagsDigest());
+	}
+
+	@Test
+	void testFlagsDigestDependsOnOrder() {
+		assertThat(TransformOptions.of("--target=es2020", "--target=esnext").flagsDigest())
+				.isNotEqualTo(TransformOptions.of("--target=esnext", "--target=es2020").flagsDigest());
+	}
+
+	@Test
+	void testForBrowser() {
+		assertThat(TransformOptions.forBrowser("{}", List.of("--minify", "--sourcemap=inline")).flags())
+				.containsExactly("--platform=browser", "--tsconfig-raw={}", "--minify", "--sourcemap=inline");
+	}
+}
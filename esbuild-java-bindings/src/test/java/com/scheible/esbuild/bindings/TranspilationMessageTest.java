@@ -0,0 +1,37 @@
+package com.scheible.esbuild.bindings;
+
+import com.scheible.esbuild.bindings.TranspilationMessage.Location;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class TranspilationMessageTest {
+
+	@Test
+	void testLineTextColumnAndLengthOfAsciiText() {
+		Location location = new Location("app.ts", 1, 6, 3, "const foo = 1;", "");
+
+		assertThat(location.lineTextColumn()).isEqualTo(6);
+		assertThat(location.lineTextLength()).isEqualTo(3);
+	}
+
+	@Test
+	void testLineTextColumnAndLengthOfMultiByteText() {
+		// 'ä' is 2 UTF-8 bytes but 1 char, '😀' is 4 UTF-8 bytes but 2 chars (a surrogate pair)
+		Location location = new Location("app.ts", 1, 20, 4, "const s = 'ä😀'; föo;", "");
+
+		assertThat(location.lineTextColumn()).isEqualTo(17);
+		assertThat(location.lineTextLength()).isEqualTo(3);
+	}
+
+	@Test
+	void testLineTextColumnAndLengthClampedToLineText() {
+		Location location = new Location("app.ts", 1, 4, 10, "föo;", "");
+
+		assertThat(location.lineTextColumn()).isEqualTo(3);
+		assertThat(location.lineTextLength()).isEqualTo(1);
+	}
+}
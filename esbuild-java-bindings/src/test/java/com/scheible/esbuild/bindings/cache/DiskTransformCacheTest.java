@@ -0,0 +1,76 @@
+package com.scheible.esbuild.bindings.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+class DiskTransformCacheTest {
+
+	private static final TransformCacheKey FIRST_KEY = new TransformCacheKey("first");
+	private static final TransformCacheKey SECOND_KEY = new TransformCacheKey("second");
+	private static final TransformCacheKey THIRD_KEY = new TransformCacheKey("third");
+
+	@TempDir
+	Path cacheDir;
+
+	@Test
+	void testPersistence() throws IOException {
+		new DiskTransformCache(this.cacheDir, 1024).put(FIRST_KEY, new byte[]{1, 2, 3});
+
+		DiskTransformCache reopenedCache = new DiskTransformCache(this.cacheDir, 1024);
+		assertThat(reopenedCache.get(FIRST_KEY)).contains(new byte[]{1, 2, 3});
+		assertThat(reopenedCache.get(SECOND_KEY)).isEmpty();
+		assertThat(reopenedCache.statistics().hits()).isEqualTo(1);
+		assertThat(reopenedCache.statistics().misses()).isEqualTo(1);
+		assertThat(reopenedCache.statistics().bytes()).isEqualTo(3);
+	}
+
+	@Test
+	void testLeastRecentlyUsedEviction() throws IOException {
+		DiskTransformCache cache = new DiskTransformCache(this.cacheDir, 10);
+		cache.put(FIRST_KEY, new byte[4]);
+		cache.put(SECOND_KEY, new byte[4]);
+		Files.setLastModifiedTime(this.cacheDir.resolve(FIRST_KEY.hash()), FileTime.fromMillis(2000));
+		Files.setLastModifiedTime(this.cacheDir.resolve(SECOND_KEY.hash()), FileTime.fromMillis(1000));
+		cache.put(THIRD_KEY, new byte[4]);
+
+		assertThat(cache.get(FIRST_KEY)).isPresent();
+		assertThat(cache.get(SECOND_KEY)).isEmpty();
+		assertThat(cache.get(THIRD_KEY)).isPresent();
+		assertThat(cache.statistics().evictions()).isEqualTo(1);
+		assertThat(cache.statistics().entries()).isEqualTo(2);
+	}
+
+	@Test
+	void testEvictionDownToLowWaterMark() throws IOException {
+		DiskTransformCache cache = new DiskTransformCache(this.cacheDir, 100);
+		for (int i = 0; i < 11; i++) {
+			cache.put(new TransformCacheKey("key" + i), new byte[10]);
+			Files.setLastModifiedTime(this.cacheDir.resolve("key" + i), FileTime.fromMillis(1000 * (i + 1)));
+		}
+
+		assertThat(cache.statistics().evictions()).isEqualTo(2);
+		assertThat(cache.statistics().bytes()).isEqualTo(90);
+		assertThat(cache.get(new TransformCacheKey("key0"))).isEmpty();
+		assertThat(cache.get(new TransformCacheKey("key1"))).isEmpty();
+		assertThat(cache.get(new TransformCacheKey("key2"))).isPresent();
+	}
+
+	@Test
+	void testOverwriteAdjustsSize() throws IOException {
+		DiskTransformCache cache = new DiskTransformCache(this.cacheDir, 1024);
+		cache.put(FIRST_KEY, new byte[10]);
+		cache.put(FIRST_KEY, new byte[4]);
+
+		assertThat(cache.statistics().entries()).isEqualTo(1);
+		assertThat(cache.statistics().bytes()).isEqualTo(4);
+	}
+}
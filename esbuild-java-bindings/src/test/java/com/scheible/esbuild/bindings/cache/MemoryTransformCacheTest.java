@@ -0,0 +1,63 @@
+package com.scheible.esbuild.bindings.cache;
+
+import com.scheible.esbuild.bindings.cache.TransformCache.CacheStatistics;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class MemoryTransformCacheTest {
+
+	private static final TransformCacheKey FIRST_KEY = new TransformCacheKey("first");
+	private static final TransformCacheKey SECOND_KEY = new TransformCacheKey("second");
+	private static final TransformCacheKey THIRD_KEY = new TransformCacheKey("third");
+
+	@Test
+	void testHitAndMiss() {
+		MemoryTransformCache cache = new MemoryTransformCache(1024);
+		cache.put(FIRST_KEY, new byte[]{1, 2, 3});
+
+		assertThat(cache.get(FIRST_KEY)).contains(new byte[]{1, 2, 3});
+		assertThat(cache.get(SECOND_KEY)).isEmpty();
+		assertThat(cache.statistics()).isEqualTo(new CacheStatistics(1, 1, 0, 1, 3));
+	}
+
+	@Test
+	void testLeastRecentlyUsedEviction() {
+		MemoryTransformCache cache = new MemoryTransformCache(10);
+		cache.put(FIRST_KEY, new byte[4]);
+		cache.put(SECOND_KEY, new byte[4]);
+		cache.get(FIRST_KEY); // now the second entry is the least recently used one
+		cache.put(THIRD_KEY, new byte[4]);
+
+		assertThat(cache.get(FIRST_KEY)).isPresent();
+		assertThat(cache.get(SECOND_KEY)).isEmpty();
+		assertThat(cache.get(THIRD_KEY)).isPresent();
+		assertThat(cache.statistics().evictions()).isEqualTo(1);
+		assertThat(cache.statistics().bytes()).isEqualTo(8);
+	}
+
+	@Test
+	void testRemove() {
+		MemoryTransformCache cache = new MemoryTransformCache(1024);
+		cache.put(FIRST_KEY, new byte[]{1, 2, 3});
+		cache.put(SECOND_KEY, new byte[]{4});
+		cache.remove(FIRST_KEY);
+		cache.remove(THIRD_KEY);
+
+		assertThat(cache.get(FIRST_KEY)).isEmpty();
+		assertThat(cache.statistics().entries()).isEqualTo(1);
+		assertThat(cache.statistics().bytes()).isEqualTo(1);
+	}
+
+	@Test
+	void testOutputLargerThanBudget() {
+		MemoryTransformCache cache = new MemoryTransformCache(2);
+		cache.put(FIRST_KEY, new byte[4]);
+
+		assertThat(cache.get(FIRST_KEY)).isEmpty();
+		assertThat(cache.statistics().entries()).isZero();
+	}
+}
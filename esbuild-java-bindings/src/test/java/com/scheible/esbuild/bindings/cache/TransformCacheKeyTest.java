@@ -0,0 +1,29 @@
+package com.scheible.esbuild.bindings.cache;
+
+import com.scheible.esbuild.bindings.TransformOptions;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class TransformCacheKeyTest {
+
+	@Test
+	void testKeyDependsOnAllInputs() {
+		TransformCacheKey key = TransformCacheKey.of("0.19.7", "test.ts", new byte[]{1}, "--platform=browser");
+
+		assertThat(TransformCacheKey.of("0.19.7", "test.ts", new byte[]{1}, "--platform=browser")).isEqualTo(key);
+		assertThat(TransformCacheKey.of("0.19.8", "test.ts", new byte[]{1}, "--platform=browser")).isNotEqualTo(key);
+		assertThat(TransformCacheKey.of("0.19.7", "other.ts", new byte[]{1}, "--platform=browser")).isNotEqualTo(key);
+		assertThat(TransformCacheKey.of("0.19.7", "test.ts", new byte[]{2}, "--platform=browser")).isNotEqualTo(key);
+		assertThat(TransformCacheKey.of("0.19.7", "test.ts", new byte[]{1}, "--platform=node")).isNotEqualTo(key);
+		assertThat(TransformCacheKey.of("0.19.7", "test.ts", new byte[]{1}, TransformOptions.of("--platform=browser")))
+				.isEqualTo(key);
+		// the last of duplicate flags wins, so the order matters
+		assertThat(TransformCacheKey.of("0.19.7", "test.ts", new byte[]{1}, "--target=es2020", "--target=esnext"))
+				.isNotEqualTo(TransformCacheKey.of("0.19.7", "test.ts", new byte[]{1}, "--target=esnext",
+						"--target=es2020"));
+	}
+}
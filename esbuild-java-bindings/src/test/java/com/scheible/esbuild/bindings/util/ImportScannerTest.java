@@ -0,0 +1,40 @@
+package com.scheible.esbuild.bindings.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class ImportScannerTest {
+
+	@Test
+	void testStaticImports() {
+		assertThat(ImportScanner.scan("""
+				import WebComponent from '~/web-component';
+				import { render, h as hyperscript } from "~/preact/dist/preact.module";
+				import * as util from './util.js';
+				import './side-effect.js';
+				export { helper } from '../helper.js';
+				export * from './all.js';
+				import{a}from"./minified.js";import"./minified-side-effect.js";
+				import '~/web-component';
+				""")).containsExactly("~/web-component", "~/preact/dist/preact.module", "./util.js",
+				"./side-effect.js", "../helper.js", "./all.js", "./minified.js", "./minified-side-effect.js");
+	}
+
+	@Test
+	void testIgnoredImports() {
+		assertThat(ImportScanner.scan("""
+				import type { Animal } from './animal';
+				export type { Animal } from './animal';
+				// import commented from './line-comment.js';
+				/* import commented from './block-comment.js'; */
+				const lazy = import('./lazy.js');
+				const url = import.meta.url + "// not a comment";
+				import real from './real.js';
+				//# sourceMappingURL=data:application/json;base64,e30=
+				""")).containsExactly("./real.js");
+	}
+}
@@ -0,0 +1,37 @@
+package com.scheible.esbuild.bindings.util;
+
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class ModuleGraphTest {
+
+	@Test
+	void testResolve() {
+		assertThat(ModuleGraph.resolve("~/app/main", "./util.js")).isEqualTo("~/app/util");
+		assertThat(ModuleGraph.resolve("~/app/main", "../shared/./model.ts")).isEqualTo("~/shared/model");
+		assertThat(ModuleGraph.resolve("~/main", "../../outside.js")).isEqualTo("~/outside");
+		assertThat(ModuleGraph.resolve("~/app/main", "~/preact/dist/preact.module"))
+				.isEqualTo("~/preact/dist/preact.module");
+	}
+
+	@Test
+	void testTransitiveImports() {
+		ModuleGraph moduleGraph = ModuleGraph.scan(Map.of( //
+				"~/main", "import WebComponent from '~/web-component'; import './app/setup.js';", //
+				"~/web-component", "import { render } from '~/preact/dist/preact.module'; import '~/main';", //
+				"~/app/setup", "import { util } from '../util.js';", //
+				"~/util", "import { render } from '~/preact/dist/preact.module';", //
+				"~/unused", "import { util } from './util.js';"));
+
+		assertThat(moduleGraph.transitiveImports("~/main")).isEqualTo(List.of("~/web-component", "~/app/setup",
+				"~/preact/dist/preact.module", "~/util"));
+		assertThat(moduleGraph.transitiveImports("~/util")).isEqualTo(List.of("~/preact/dist/preact.module"));
+		assertThat(moduleGraph.transitiveImports("~/unknown")).isEmpty();
+	}
+}
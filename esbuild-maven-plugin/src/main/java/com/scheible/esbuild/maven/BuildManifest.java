@@ -0,0 +1,192 @@
+package com.scheible.esbuild.maven;
+
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.bind.JsonbConfig;
+import jakarta.json.bind.JsonbException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Remembers for every source file the size, last modified time, content hash and output file of the last build. For
+ * transformed modules also the static imports of the output are remembered, so that the module graph only has to scan
+ * the rewritten outputs. Only valid as long as the configuration (esbuild version, flags, tsconfig) does not change.
+ *
+ * @author sj
+ */
+public class BuildManifest {
+
+	/**
+	 * The imports are {@code null} if unknown (e.g. not a module or not scanned yet).
+	 */
+	public record Entry(String source, long size, long lastModified, String hash, String output,
+			List<String> imports) {
+
+		Entry withImports(List<String> imports) {
+			return new Entry(this.source, this.size, this.lastModified, this.hash, this.output, imports);
+		}
+	}
+
+	public record Content(String configHash, List<Entry> entries, List<String> bundleOutputs) {
+
+	}
+
+	private final String configHash;
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+	private List<String> bundleOutputs = List.of();
+
+	private BuildManifest(String configHash) {
+		this.configHash = configHash;
+	}
+
+	static BuildManifest empty(String configHash) {
+		return new BuildManifest(configHash);
+	}
+
+	/**
+	 * Reads the manifest of the last build. If there is none or the configuration has changed an empty manifest is
+	 * returned. Only the outputs of the last bundle are always kept, to be able to delete them if they are stale.
+	 */
+	static BuildManifest read(Path manifestFile, String configHash) throws IOException {
+		BuildManifest manifest = new BuildManifest(configHash);
+
+		if (Files.exists(manifestFile)) {
+			String manifestJson = Files.readString(manifestFile);
+
+			Content content;
+			try {
+				content = JsonbBuilder.create().fromJson(manifestJson, Content.class);
+			} catch (JsonbException ex) {
+				return manifest; // a corrupt manifest just means a full build
+			}
+
+			if (configHash.equals(content.configHash()) && content.entries() != null) {
+				content.entries().forEach(entry -> manifest.entries.put(entry.source(), entry));
+			}
+			if (content.bundleOutputs() != null) {
+				manifest.bundleOutputs = List.copyOf(content.bundleOutputs());
+			}
+		}
+
+		return manifest;
+	}
+
+	void write(Path manifestFile) throws IOException {
+		String manifestJson = JsonbBuilder.create(new JsonbConfig().withFormatting(true)).toJson(new Content(
+				this.configHash, new ArrayList<>(this.entries.values()), this.bundleOutputs));
+
+		Files.createDirectories(manifestFile.getParent());
+		Files.writeString(manifestFile, manifestJson);
+	}
+
+	/**
+	 * Creates the entry of a source file. The content hash is only calculated if size or last modified time differ
+	 * from the entry of the last build.
+	 */
+	Entry createEntry(Path srcDir, Path srcFile, Path targetDir, Path targetFile) throws IOException {
+		String source = toKey(srcDir.relativize(srcFile));
+		String output = toKey(targetDir.relativize(targetFile));
+		long size = Files.size(srcFile);
+		long lastModified = Files.getLastModifiedTime(srcFile).toMillis();
+
+		Entry previous = this.entries.get(source);
+		if (previous != null && previous.size() == size && previous.lastModified() == lastModified) {
+			return new Entry(source, size, lastModified, previous.hash(), output, null);
+		} else {
+			return new Entry(source, size, lastModified, hash(Files.newInputStream(srcFile)), output, null);
+		}
+	}
+
+	/**
+	 * A source file is up to date if its content and output did not change since the last build and the output still
+	 * exists. The same applies to additional outputs (e.g. an external source map) that are named like the output plus
+	 * one of the suffixes.
+	 */
+	boolean isUpToDate(Entry entry, Path targetDir, String... outputSuffixes) {
+		Entry previous = this.entries.get(entry.source());
+		return previous != null && previous.hash().equals(entry.hash()) && previous.output().equals(entry.output())
+				&& Files.exists(targetDir.resolve(entry.output())) && Stream.of(outputSuffixes)
+				.allMatch(outputSuffix -> Files.exists(targetDir.resolve(entry.output() + outputSuffix)));
+	}
+
+	void add(Entry entry) {
+		this.entries.put(entry.source(), entry);
+	}
+
+	/**
+	 * The static imports of the output of the source, if known.
+	 */
+	Optional<List<String>> imports(String source) {
+		return Optional.ofNullable(this.entries.get(source)).map(Entry::imports);
+	}
+
+	void setImports(String source, List<String> imports) {
+		this.entries.computeIfPresent(source, (key, entry) -> entry.withImports(imports));
+	}
+
+	/**
+	 * The output files (relative to the target dir) of the last bundle.
+	 */
+	List<String> bundleOutputs() {
+		return this.bundleOutputs;
+	}
+
+	void setBundleOutputs(List<String> bundleOutputs) {
+		this.bundleOutputs = List.copyOf(bundleOutputs);
+	}
+
+	/**
+	 * Entries of this manifest whose source is not part of the other manifest anymore.
+	 */
+	Collection<Entry> removedIn(BuildManifest other) {
+		return this.entries.values().stream().filter(entry -> !other.entries.containsKey(entry.source())).toList();
+	}
+
+	static String hashConfig(String... values) {
+		MessageDigest digest = newDigest();
+		for (String value : values) {
+			digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static String hash(InputStream input) throws IOException {
+		try (input) {
+			MessageDigest digest = newDigest();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Paths are always stored with forward slashes to be independent of the operating system.
+	 */
+	static String toKey(Path relativePath) {
+		return relativePath.toString().replace('\\', '/');
+	}
+}
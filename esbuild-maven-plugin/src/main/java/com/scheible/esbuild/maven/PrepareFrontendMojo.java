@@ -1,9 +1,16 @@
 package com.scheible.esbuild.maven;
 
-import com.scheible.esbuild.bindings.EsBuild;
+import com.scheible.esbuild.bindings.BuildResult;
+import com.scheible.esbuild.bindings.EsBuildPool;
+import com.scheible.esbuild.bindings.TransformInput;
+import com.scheible.esbuild.bindings.TransformOptions;
 import com.scheible.esbuild.bindings.TranspilationResult;
+import com.scheible.esbuild.bindings.cache.DiskTransformCache;
+import com.scheible.esbuild.bindings.cache.TransformCache;
+import com.scheible.esbuild.bindings.cache.TransformCacheKey;
 import com.scheible.esbuild.bindings.util.ImportMapGenerator;
 import com.scheible.esbuild.bindings.util.ImportMapper;
+import com.scheible.esbuild.bindings.util.ModuleGraph;
 import com.scheible.esbuild.bindings.util.TsConfig;
 import jakarta.json.bind.JsonbBuilder;
 import jakarta.json.bind.JsonbConfig;
@@ -12,17 +19,26 @@ import org.apache.maven.plugin.MojoExecutionException;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Stream;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
@@ -39,6 +55,9 @@ public class PrepareFrontendMojo extends AbstractMojo {
 
 	private static final PathMatcher TS_FILE_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**/*.{ts,tsx}");
 
+	private static final String EXTERNAL_SOURCE_MAP_FLAG = "--sourcemap=external";
+	private static final String SOURCE_MAP_EXTENSION = ".map";
+
 	@Parameter(defaultValue = "${project.basedir}") // where the POM.xml is
 	private File baseDirFile;
 
@@ -48,6 +67,45 @@ public class PrepareFrontendMojo extends AbstractMojo {
 	@Parameter(property = "esbuild-maven.esbuild-version")
 	private String esBuildVersion;
 
+	@Parameter(property = "esbuild-maven.pool-size")
+	private Integer poolSize;
+
+	@Parameter(property = "esbuild-maven.parallelism", defaultValue = "32") // max. number of files transformed at once
+	private int parallelism;
+
+	@Parameter(defaultValue = "${project.build.directory}/" + DiskTransformCache.DEFAULT_DIRECTORY_NAME) // ./target/esbuild-cache
+	private File cacheDirFile;
+
+	@Parameter(property = "esbuild-maven.cache-size", defaultValue = "268435456") // 256 MB, 0 disables the cache
+	private long cacheSize;
+
+	@Parameter(property = "esbuild-maven.incremental", defaultValue = "true") // only rebuild changed sources
+	private boolean incremental;
+
+	@Parameter(defaultValue = "${project.build.directory}/esbuild-build-manifest.json")
+	private File manifestFile;
+
+	@Parameter(property = "esbuild-maven.minify", defaultValue = "false")
+	private boolean minify;
+
+	@Parameter(property = "esbuild-maven.target") // e.g. es2020, defaults to esnext
+	private String target;
+
+	@Parameter(property = "esbuild-maven.drop-console", defaultValue = "false") // removes all console.* calls
+	private boolean dropConsole;
+
+	@Parameter(property = "esbuild-maven.source-map", defaultValue = "inline") // inline, external or none
+	private String sourceMap;
+
+	@Parameter(property = "esbuild-maven.bundle", defaultValue = "false") // bundle instead of transforming every file
+	private boolean bundle;
+
+	@Parameter // relative to the src dir, only used when bundling (defaults to main.ts)
+	private List<String> entryPoints;
+
+	@Parameter(property = "esbuild-maven.splitting", defaultValue = "true") // shared code of the entry points in chunks
+	private boolean splitting;
+
 	@Parameter(property = "esbuild-maven.skip", defaultValue = "${esbuild-maven.skip}")
 	private boolean skip;
 
@@ -85,78 +143,437 @@ public class PrepareFrontendMojo extends AbstractMojo {
 					? getSrcFiles(libDir).stream().filter(TS_FILE_MATCHER::matches).toList() 
 					: Collections.emptyList();
 
+			Collection<Path> entryPointFiles = this.bundle ? getEntryPointFiles(srcDir,
+					this.entryPoints == null || this.entryPoints.isEmpty() ? List.of("main.ts") : this.entryPoints)
+					: Collections.emptyList();
+
 			Path importMapFile = outputDir.resolve("import-map.json");
+			Path moduleGraphFile = outputDir.resolve("module-graph.json");
+
+			List<String> outputFlags = getOutputFlags(this.minify, this.target, this.dropConsole, this.sourceMap,
+					this.bundle);
+			// same order as in the dev-server, otherwise the keys of the shared disk cache would differ
+			TransformOptions transformOptions = TransformOptions.forBrowser(tsConfigJson, outputFlags);
+			String[] bundleFlags = this.bundle ? getBundleFlags(tsConfigFile, srcDir, libDir, tsLibFiles, targetDir,
+					this.splitting, outputFlags) : new String[0];
+
+			String configHash = BuildManifest.hashConfig(this.esBuildVersion, String.join(" ", transformOptions.flags()),
+					String.join(" ", bundleFlags));
+			BuildManifest previousManifest = this.incremental ? BuildManifest.read(this.manifestFile.toPath(), configHash)
+					: BuildManifest.empty(configHash);
+			BuildManifest manifest = BuildManifest.empty(configHash);
+
+			// when bundling the TypeScript files are always bundled as a whole
+			Collection<Path> outdatedTsSrcFiles = this.bundle ? Collections.emptyList()
+					: getOutdatedFiles(previousManifest, manifest, srcDir, tsSrcFiles, targetDir,
+							PrepareFrontendMojo::toTsTargetFile, outputFlags.contains(EXTERNAL_SOURCE_MAP_FLAG)
+							? new String[]{SOURCE_MAP_EXTENSION} : new String[0]);
+			Collection<Path> outdatedNonTsSrcFiles = getOutdatedFiles(previousManifest, manifest, srcDir, nonTsSrcFiles,
+					targetDir, PrepareFrontendMojo::toNonTsTargetFile);
+			if (!this.bundle) {
+				getLog().info((srcFiles.size() - outdatedTsSrcFiles.size() - outdatedNonTsSrcFiles.size()) + " of "
+						+ srcFiles.size() + " files in src dir are up to date.");
+			} else {
+				getLog().info((nonTsSrcFiles.size() - outdatedNonTsSrcFiles.size()) + " of " + nonTsSrcFiles.size()
+						+ " non TypeScript files in src dir are up to date.");
+			}
 
-			getLog().info("Transforming files (from src dir to target dir):");
-			transformTsFiles(srcDir, tsSrcFiles, targetDir, tsConfigJson, this.esBuildVersion,
-					this.baseDirFile.toPath().toAbsolutePath(), getLog());
+			deleteRemovedFiles(previousManifest.removedIn(manifest), targetDir, getLog());
+
+			if (this.bundle) {
+				getLog().info("Bundling files (from src dir to target dir):");
+				List<String> bundleOutputs = bundleTsFiles(srcDir, entryPointFiles, targetDir, bundleFlags,
+						this.esBuildVersion, this.baseDirFile.toPath().toAbsolutePath(), getLog());
+				deleteStaleBundleOutputs(previousManifest.bundleOutputs(), bundleOutputs, targetDir, getLog());
+				manifest.setBundleOutputs(bundleOutputs);
+			} else {
+				TransformCache transformCache = new DiskTransformCache(this.cacheDirFile.toPath(), this.cacheSize);
+
+				getLog().info("Transforming files (from src dir to target dir):");
+				transformTsFiles(srcDir, outdatedTsSrcFiles, targetDir, transformOptions,
+						this.esBuildVersion, this.poolSize == null ? EsBuildPool.defaultSize() : this.poolSize,
+						this.parallelism, transformCache, this.baseDirFile.toPath().toAbsolutePath(), getLog());
+				getLog().info("Transform cache statistics: " + transformCache.statistics());
+			}
 			getLog().info("Copying files (from src dir to target dir):");
-			copyNonTsFiles(srcDir, nonTsSrcFiles, targetDir, getLog());
-			writeImportMap(srcDir, tsSrcFiles, libDir, tsLibFiles, outputDir, importMapFile, getLog());
+			copyNonTsFiles(srcDir, outdatedNonTsSrcFiles, targetDir, getLog());
+			// when bundling only the entry points and the chunks shared by them are left as modules
+			Collection<Path> tsModuleFiles = this.bundle ? entryPointFiles : tsSrcFiles;
+			List<String> chunkOutputs = this.bundle ? getChunkOutputs(manifest.bundleOutputs(), srcDir,
+					entryPointFiles, targetDir) : List.of();
+			writeImportMap(srcDir, tsModuleFiles, chunkOutputs, libDir, tsLibFiles, outputDir, importMapFile,
+					getLog());
+			writeModuleGraph(srcDir, tsModuleFiles, chunkOutputs, targetDir, outputDir, moduleGraphFile, manifest,
+					getLog());
+
+			manifest.write(this.manifestFile.toPath());
 		} catch (IOException ex) {
 			throw new MojoExecutionException("Error while preparing the frontend.", ex);
 		}
 	}
 
+	static Collection<Path> getEntryPointFiles(Path srcDir, List<String> entryPoints) throws MojoExecutionException {
+		List<Path> entryPointFiles = new ArrayList<>();
+		for (String entryPoint : entryPoints) {
+			Path entryPointFile = srcDir.resolve(entryPoint).normalize();
+			if (!Files.isRegularFile(entryPointFile) || !TS_FILE_MATCHER.matches(entryPointFile)) {
+				throw new MojoExecutionException("The entry point '" + entryPoint + "' is not a TypeScript file in the src dir!");
+			}
+			entryPointFiles.add(entryPointFile);
+		}
+		return entryPointFiles;
+	}
+
+	/**
+	 * Flags for minification, the target and the source maps. External source maps are written next to the
+	 * JavaScript files with a {@code .map} extension.
+	 */
+	static List<String> getOutputFlags(boolean minify, String target, boolean dropConsole, String sourceMap,
+			boolean bundle) throws MojoExecutionException {
+		List<String> flags = new ArrayList<>();
+		if (minify) {
+			flags.add("--minify");
+		}
+		if (target != null && !target.isBlank()) {
+			flags.add("--target=" + target.trim());
+		}
+		if (dropConsole) {
+			flags.add("--drop:console");
+		}
+
+		switch (sourceMap == null ? "inline" : sourceMap.trim().toLowerCase()) {
+			case "inline" ->
+				flags.add("--sourcemap=inline");
+			case "external" -> // a build adds the sourceMappingURL comment itself
+				flags.add(bundle ? "--sourcemap=linked" : EXTERNAL_SOURCE_MAP_FLAG);
+			case "none" -> {
+			}
+			default ->
+				throw new MojoExecutionException("Unknown source map mode '" + sourceMap
+						+ "', must be one of 'inline', 'external' or 'none'!");
+		}
+
+		return flags;
+	}
+
+	/**
+	 * The files of the lib dir are external, they are resolved by the import map at runtime. The tsconfig.json is
+	 * passed as file (and not as raw JSON) to resolve its {@code paths} relative to the frontend dir. With the src dir
+	 * as base the entry points are written to the same target files as when transforming.
+	 */
+	static String[] getBundleFlags(Path tsConfigFile, Path srcDir, Path libDir, Collection<Path> tsLibFiles,
+			Path targetDir, boolean splitting, List<String> outputFlags) {
+		List<String> flags = new ArrayList<>(List.of("--bundle", "--format=esm", "--platform=browser",
+				"--tsconfig=" + tsConfigFile.toAbsolutePath(), "--outbase=" + srcDir.toAbsolutePath(),
+				"--outdir=" + targetDir.toAbsolutePath()));
+		flags.addAll(outputFlags);
+		if (splitting) {
+			flags.add("--splitting");
+		}
+		for (Path tsLibFile : tsLibFiles) {
+			flags.add("--external:" + ImportMapper.toBareImport(libDir.relativize(tsLibFile)));
+		}
+		return flags.toArray(String[]::new);
+	}
+
 	static Collection<Path> getSrcFiles(Path srcDir) throws IOException {
 		try (Stream<Path> stream = Files.walk(srcDir)) {
 			return stream.filter(Files::isRegularFile).toList();
 		}
 	}
 
-	static void transformTsFiles(Path srcDir, Collection<Path> tsSrcFiles, Path targetDir, String tsConfigJson,
-			String esBuildVersion, Path workDir, Log log) throws IOException, MojoExecutionException {
-		EsBuild esBuild = esBuildVersion == null ? EsBuild.start(workDir) : EsBuild.start(esBuildVersion, workDir);
-
-		for (Path tsSrcFile : tsSrcFiles) {
-			String originalFileName = tsSrcFile.getFileName().toString();
-			String fileName = originalFileName.replace(".tsx", ".js").replace(".ts", ".js");
-
-			byte[] typeScriptBytes = Files.readAllBytes(tsSrcFile);
-			TranspilationResult result;
-			try {
-				result = esBuild.transform(originalFileName, typeScriptBytes, "--platform=browser", "--sourcemap=inline",
-						"--tsconfig-raw=" + tsConfigJson).get();
-			} catch (InterruptedException | ExecutionException ex) {
-				throw new IllegalStateException(ex);
+	/**
+	 * Returns the files that changed since the last build or whose outputs (the target file and the target file plus
+	 * any of the output suffixes) are missing. All files are added to the manifest of the current build.
+	 */
+	static Collection<Path> getOutdatedFiles(BuildManifest previousManifest, BuildManifest manifest, Path srcDir,
+			Collection<Path> srcFiles, Path targetDir, TargetFileResolver targetFileResolver, String... outputSuffixes)
+			throws IOException {
+		Collection<Path> outdatedFiles = new ArrayList<>();
+
+		for (Path srcFile : srcFiles) {
+			BuildManifest.Entry entry = previousManifest.createEntry(srcDir, srcFile, targetDir,
+					targetFileResolver.resolve(srcDir, srcFile, targetDir));
+
+			if (previousManifest.isUpToDate(entry, targetDir, outputSuffixes)) {
+				// the output is not rewritten, therefore its imports are still the same
+				manifest.add(previousManifest.imports(entry.source()).map(entry::withImports).orElse(entry));
+			} else {
+				manifest.add(entry);
+				outdatedFiles.add(srcFile);
 			}
+		}
+
+		return outdatedFiles;
+	}
+
+	static void deleteRemovedFiles(Collection<BuildManifest.Entry> removedEntries, Path targetDir, Log log) throws IOException {
+		for (BuildManifest.Entry removedEntry : removedEntries) {
+			if (Files.deleteIfExists(targetDir.resolve(removedEntry.output()))) {
+				log.info("- deleted '" + removedEntry.output() + "' (source was removed)");
+			}
+			// matched as absolute path, '**/' would not match a source directly in the src dir
+			if (TS_FILE_MATCHER.matches(targetDir.resolve(removedEntry.source()))
+					&& Files.deleteIfExists(targetDir.resolve(removedEntry.output() + SOURCE_MAP_EXTENSION))) {
+				log.info("- deleted '" + removedEntry.output() + SOURCE_MAP_EXTENSION + "' (source was removed)");
+			}
+		}
+	}
 
+	@FunctionalInterface
+	interface TargetFileResolver {
+
+		Path resolve(Path srcDir, Path srcFile, Path targetDir);
+	}
+
+	static Path toTsTargetFile(Path srcDir, Path tsSrcFile, Path targetDir) {
+		String fileName = tsSrcFile.getFileName().toString().replace(".tsx", ".js").replace(".ts", ".js");
+		return targetDir.resolve(srcDir.relativize(tsSrcFile)).getParent().resolve(fileName);
+	}
+
+	static Path toNonTsTargetFile(Path srcDir, Path nonTsSrcFile, Path targetDir) {
+		return targetDir.resolve(srcDir.relativize(nonTsSrcFile));
+	}
+
+	/**
+	 * Reads the files, writes the cached ones directly and transforms the others as a batch with up to
+	 * {@code parallelism} transforms in-flight. The outputs are written as the results arrive. After the first error no
+	 * further files are submitted, but all errors of the pending transforms are reported. External source maps are
+	 * cached under a key derived from the key of the code.
+	 */
+	static void transformTsFiles(Path srcDir, Collection<Path> tsSrcFiles, Path targetDir, TransformOptions options,
+			String esBuildVersion, int poolSize, int parallelism, TransformCache transformCache, Path workDir, Log log)
+			throws IOException, MojoExecutionException {
+		if (tsSrcFiles.isEmpty()) {
+			return;
+		}
+
+		boolean externalSourceMaps = options.flags().contains(EXTERNAL_SOURCE_MAP_FLAG);
+
+		EsBuildPool esBuild = EsBuildPool.start(esBuildVersion, workDir, poolSize);
+		try {
+			List<TransformInput> inputs = new ArrayList<>();
+			Map<TransformInput, UncachedFile> uncachedFiles = new IdentityHashMap<>();
+
+			for (Path tsSrcFile : tsSrcFiles) {
+				byte[] typeScriptBytes = Files.readAllBytes(tsSrcFile);
+				TransformInput input = new TransformInput(tsSrcFile.getFileName().toString(), typeScriptBytes);
+				TransformCacheKey cacheKey = TransformCacheKey.of(esBuild.version(), input.fileName(), typeScriptBytes, options);
+
+				Optional<byte[]> cachedCode = transformCache.get(cacheKey);
+				Optional<byte[]> cachedMap = externalSourceMaps && cachedCode.isPresent()
+						? transformCache.get(cacheKey.derive("map")) : Optional.empty();
+				if (cachedCode.isPresent() && (!externalSourceMaps || cachedMap.isPresent())) {
+					Path tsTargetFile = writeTsTargetFile(srcDir, tsSrcFile, targetDir, cachedCode.get(), cachedMap);
+					log.info("- transformed '" + srcDir.relativize(tsSrcFile) + "' --> '" + targetDir.relativize(tsTargetFile) + "' (cached)");
+				} else {
+					inputs.add(input);
+					uncachedFiles.put(input, new UncachedFile(tsSrcFile, cacheKey));
+				}
+			}
+
+			// the callback is called by the read threads, the outputs are written by this thread
+			BlockingQueue<CompletedTransform> completedTransforms = new LinkedBlockingQueue<>();
+			CompletableFuture<Void> batch = esBuild.transformAll(inputs, parallelism, (input, result, throwable) -> {
+				completedTransforms.add(new CompletedTransform(uncachedFiles.get(input), result, throwable));
+				return throwable == null && result.error().isEmpty();
+			}, options);
+			batch.whenComplete((result, throwable) -> completedTransforms.add(CompletedTransform.LAST));
+
+			List<String> errorMessages = new ArrayList<>();
+			CompletedTransform completedTransform;
+			while ((completedTransform = completedTransforms.take()) != CompletedTransform.LAST) {
+				Path tsSrcFile = completedTransform.file().tsSrcFile();
+				if (completedTransform.throwable() != null) {
+					errorMessages.add("Error transforming '" + srcDir.relativize(tsSrcFile) + "' :" + completedTransform.throwable());
+				} else if (completedTransform.result().error().isPresent()) {
+					errorMessages.add("Error transforming '" + srcDir.relativize(tsSrcFile) + "' :"
+							+ completedTransform.result().error().get().message());
+				} else {
+					TranspilationResult result = completedTransform.result();
+					byte[] code = result.codeBytes().get();
+					Optional<byte[]> map = result.mapBytes();
+					if (map.isPresent()) {
+						byte[] sourceMappingUrl = ("//# sourceMappingURL=" + toTsTargetFile(srcDir, tsSrcFile, targetDir)
+								.getFileName() + SOURCE_MAP_EXTENSION + "\n").getBytes(StandardCharsets.UTF_8);
+						code = Arrays.copyOf(code, code.length + sourceMappingUrl.length);
+						System.arraycopy(sourceMappingUrl, 0, code, code.length - sourceMappingUrl.length,
+								sourceMappingUrl.length);
+					}
+
+					Path tsTargetFile = writeTsTargetFile(srcDir, tsSrcFile, targetDir, code, map);
+					transformCache.put(completedTransform.file().cacheKey(), code);
+					if (map.isPresent()) {
+						transformCache.put(completedTransform.file().cacheKey().derive("map"), map.get());
+					}
+					log.info("- transformed '" + srcDir.relativize(tsSrcFile) + "' --> '" + targetDir.relativize(tsTargetFile) + "'");
+				}
+			}
+			batch.join();
+
+			if (!errorMessages.isEmpty()) {
+				errorMessages.forEach(log::error);
+				throw new MojoExecutionException(errorMessages.size() == 1 ? errorMessages.get(0)
+						: errorMessages.size() + " files could not be transformed, first: " + errorMessages.get(0));
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while transforming files.", ex);
+		} catch (CompletionException ex) {
+			throw new MojoExecutionException("Error while transforming files.", ex.getCause());
+		} finally {
+			esBuild.stop();
+		}
+	}
+
+	private record UncachedFile(Path tsSrcFile, TransformCacheKey cacheKey) {
+
+	}
+
+	private record CompletedTransform(UncachedFile file, TranspilationResult result, Throwable throwable) {
+
+		private static final CompletedTransform LAST = new CompletedTransform(null, null, null);
+	}
+
+	/**
+	 * Bundles the entry points (and the chunks shared between them) with a single build request. Returns the written
+	 * output files relative to the target dir.
+	 */
+	static List<String> bundleTsFiles(Path srcDir, Collection<Path> entryPointFiles, Path targetDir, String[] flags,
+			String esBuildVersion, Path workDir, Log log) throws IOException, MojoExecutionException {
+		EsBuildPool esBuild = EsBuildPool.start(esBuildVersion, workDir, 1);
+		try {
+			BuildResult result = esBuild.buildAsync(entryPointFiles, flags).join();
 			if (result.error().isPresent()) {
-				esBuild.stop();
-				String errorMessage = "Error transforming '" + srcDir.relativize(tsSrcFile) + "' :" + result.error().get().message();
-				log.error(errorMessage);
-				throw new MojoExecutionException(errorMessage);
-			} else {
-				Path tsTargetFile = targetDir.resolve(srcDir.relativize(tsSrcFile)).getParent().resolve(fileName);
-				Files.createDirectories(tsTargetFile.getParent());
-				Files.write(tsTargetFile, result.code().get().getBytes());
-				log.info("- transformed '" + srcDir.relativize(tsSrcFile) + "' --> '" + targetDir.relativize(tsTargetFile) + "'");
+				throw new MojoExecutionException("Error bundling " + entryPointFiles.stream()
+						.map(entryPointFile -> "'" + srcDir.relativize(entryPointFile) + "'").toList() + " :"
+						+ result.error().get().message());
+			}
+
+			List<String> bundleOutputs = new ArrayList<>();
+			for (BuildResult.OutputFile outputFile : result.outputFiles()) {
+				Files.createDirectories(outputFile.path().getParent());
+				Files.write(outputFile.path(), outputFile.contents());
+				bundleOutputs.add(BuildManifest.toKey(targetDir.toAbsolutePath().relativize(outputFile.path())));
+				log.info("- bundled '" + bundleOutputs.get(bundleOutputs.size() - 1) + "'");
 			}
+			return bundleOutputs;
+		} catch (CompletionException ex) {
+			throw new MojoExecutionException("Error bundling the files.", ex.getCause());
+		} finally {
+			esBuild.stop();
 		}
+	}
 
-		esBuild.stop();
+	/**
+	 * The chunk names contain a content hash, outputs of the last bundle that were not written again are stale.
+	 */
+	static void deleteStaleBundleOutputs(List<String> previousBundleOutputs, List<String> bundleOutputs,
+			Path targetDir, Log log) throws IOException {
+		for (String previousBundleOutput : previousBundleOutputs) {
+			if (!bundleOutputs.contains(previousBundleOutput)
+					&& Files.deleteIfExists(targetDir.resolve(previousBundleOutput))) {
+				log.info("- deleted '" + previousBundleOutput + "' (not part of the bundle anymore)");
+			}
+		}
+	}
+
+	/**
+	 * The JavaScript outputs of the bundle that are not the output of an entry point.
+	 */
+	static List<String> getChunkOutputs(List<String> bundleOutputs, Path srcDir, Collection<Path> entryPointFiles,
+			Path targetDir) {
+		List<String> entryPointOutputs = entryPointFiles.stream().map(entryPointFile -> BuildManifest.toKey(
+				targetDir.relativize(toTsTargetFile(srcDir, entryPointFile, targetDir)))).toList();
+		return bundleOutputs.stream().filter(bundleOutput -> bundleOutput.endsWith(".js")
+				&& !entryPointOutputs.contains(bundleOutput)).sorted().toList();
+	}
+
+	private static Path writeTsTargetFile(Path srcDir, Path tsSrcFile, Path targetDir, byte[] code,
+			Optional<byte[]> map) throws IOException {
+		Path tsTargetFile = toTsTargetFile(srcDir, tsSrcFile, targetDir);
+		Files.createDirectories(tsTargetFile.getParent());
+		Files.write(tsTargetFile, code);
+		if (map.isPresent()) {
+			Files.write(tsTargetFile.resolveSibling(tsTargetFile.getFileName() + SOURCE_MAP_EXTENSION), map.get());
+		}
+		return tsTargetFile;
 	}
 
 	static void copyNonTsFiles(Path srcDir, Collection<Path> nonTsSrcFiles, Path targetDir, Log log) throws IOException {
 		for (Path nonTsSrcFile : nonTsSrcFiles) {
-			Path nonTsTargetFile = targetDir.resolve(srcDir.relativize(nonTsSrcFile));
+			Path nonTsTargetFile = toNonTsTargetFile(srcDir, nonTsSrcFile, targetDir);
 			Files.createDirectories(nonTsTargetFile.getParent());
 			Files.copy(nonTsSrcFile, nonTsTargetFile, StandardCopyOption.REPLACE_EXISTING);
 			log.info("- copied '" + srcDir.relativize(nonTsSrcFile) + "' --> '" + targetDir.relativize(nonTsTargetFile) + "'");
 		}
 	}
 
-	static void writeImportMap(Path srcDir, Collection<Path> tsSrcFiles, Path libDir, Collection<Path> tsLibFiles,
-			Path targetDir, Path importMapFile, Log log) throws IOException {
+	/**
+	 * Chunks are mapped without the revision, they are imported with relative URLs by the entry points (which are
+	 * resolved without the query of the entry point). Their names contain a content hash anyway. They are only mapped
+	 * to be able to preload them.
+	 */
+	static void writeImportMap(Path srcDir, Collection<Path> tsSrcFiles, Collection<String> chunkOutputs, Path libDir,
+			Collection<Path> tsLibFiles, Path targetDir, Path importMapFile, Log log) throws IOException {
 		Map<String, String> imports = new HashMap<>(ImportMapper.map(tsSrcFiles.stream().map(file -> srcDir.relativize(file)).toList(),
 				ImportMapper.FRONTEND_PREFIX_PLACEHOLDER));
+		for (String chunkOutput : chunkOutputs) {
+			imports.put(ImportMapper.toBareImport(Path.of(chunkOutput)), ImportMapper.FRONTEND_PREFIX_PLACEHOLDER + "/"
+					+ chunkOutput);
+		}
 		if (Files.exists(libDir)) {
 			imports.putAll(ImportMapper.map(tsLibFiles.stream().map(file -> libDir.relativize(file)).toList(),
 					ImportMapper.LIBRARY_PREFIX_PLACEHOLDER));
 		}
 
 		String importMapJson = JsonbBuilder.create(new JsonbConfig().withFormatting(true)).toJson(ImportMapGenerator.toImportMap(imports));
-		Files.writeString(importMapFile, importMapJson);
-		log.info("Wrote '" + targetDir.relativize(importMapFile) + "' to output dir.");
+		if (Files.exists(importMapFile) && importMapJson.equals(Files.readString(importMapFile))) {
+			log.info("'" + targetDir.relativize(importMapFile) + "' in output dir is up to date.");
+		} else {
+			Files.writeString(importMapFile, importMapJson);
+			log.info("Wrote '" + targetDir.relativize(importMapFile) + "' to output dir.");
+		}
+	}
+
+	/**
+	 * Scans the transformed files of the src dir (and the chunks of a bundle) for their static imports. Only rewritten
+	 * outputs are scanned, the imports of all others are taken from the manifest (and the scanned ones are added to
+	 * it). The files of the lib dir are not scanned, they are only part of the graph if imported by a file of the src
+	 * dir.
+	 */
+	static void writeModuleGraph(Path srcDir, Collection<Path> tsSrcFiles, Collection<String> chunkOutputs,
+			Path targetDir, Path outputDir, Path moduleGraphFile, BuildManifest manifest, Log log) throws IOException {
+		Map<String, List<String>> imports = new LinkedHashMap<>();
+		int scannedModules = 0;
+		for (Path tsSrcFile : tsSrcFiles.stream().sorted().toList()) {
+			String module = ImportMapper.toBareImport(srcDir.relativize(tsSrcFile));
+			String source = BuildManifest.toKey(srcDir.relativize(tsSrcFile));
+
+			Optional<List<String>> moduleImports = manifest.imports(source);
+			if (moduleImports.isPresent()) {
+				imports.put(module, moduleImports.get());
+			} else {
+				List<String> scannedImports = ModuleGraph.scanImports(module,
+						Files.readString(toTsTargetFile(srcDir, tsSrcFile, targetDir)));
+				manifest.setImports(source, scannedImports);
+				imports.put(module, scannedImports);
+				scannedModules++;
+			}
+		}
+		for (String chunkOutput : chunkOutputs) { // always rewritten by the bundle
+			String module = ImportMapper.toBareImport(Path.of(chunkOutput));
+			imports.put(module, ModuleGraph.scanImports(module, Files.readString(targetDir.resolve(chunkOutput))));
+			scannedModules++;
+		}
+		log.info("Scanned " + scannedModules + " of " + imports.size() + " modules for their imports.");
+
+		String moduleGraphJson = JsonbBuilder.create(new JsonbConfig().withFormatting(true)).toJson(imports);
+		if (Files.exists(moduleGraphFile) && moduleGraphJson.equals(Files.readString(moduleGraphFile))) {
+			log.info("'" + outputDir.relativize(moduleGraphFile) + "' in output dir is up to date.");
+		} else {
+			Files.writeString(moduleGraphFile, moduleGraphJson);
+			log.info("Wrote '" + outputDir.relativize(moduleGraphFile) + "' to output dir.");
+		}
 	}
 }
@@ -0,0 +1,124 @@
+package com.scheible.esbuild.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+class BuildManifestTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void testCreateEntryHashesOnlyIfSizeOrLastModifiedChanged() throws IOException {
+		Path srcFile = Files.writeString(Files.createDirectories(this.tempDir.resolve("src")).resolve("app.ts"),
+				"let a = 1;");
+		Files.setLastModifiedTime(srcFile, FileTime.fromMillis(1000));
+
+		BuildManifest manifest = BuildManifest.empty("config");
+		BuildManifest.Entry entry = createEntry(manifest, srcFile);
+		manifest.add(entry);
+
+		assertThat(entry.source()).isEqualTo("app.ts");
+		assertThat(entry.output()).isEqualTo("app.js");
+
+		// same size and last modified time, the content is not read again
+		Files.writeString(srcFile, "let b = 1;");
+		Files.setLastModifiedTime(srcFile, FileTime.fromMillis(1000));
+		assertThat(createEntry(manifest, srcFile).hash()).isEqualTo(entry.hash());
+
+		Files.setLastModifiedTime(srcFile, FileTime.fromMillis(2000));
+		assertThat(createEntry(manifest, srcFile).hash()).isNotEqualTo(entry.hash());
+	}
+
+	@Test
+	void testIsUpToDate() throws IOException {
+		Path srcFile = Files.writeString(Files.createDirectories(this.tempDir.resolve("src")).resolve("app.ts"),
+				"let a = 1;");
+		Path targetDir = Files.createDirectories(this.tempDir.resolve("target"));
+
+		BuildManifest manifest = BuildManifest.empty("config");
+		BuildManifest.Entry entry = createEntry(manifest, srcFile);
+		manifest.add(entry);
+
+		assertThat(manifest.isUpToDate(entry, targetDir)).as("output is missing").isFalse();
+
+		Files.writeString(targetDir.resolve("app.js"), "let a = 1;");
+		assertThat(manifest.isUpToDate(entry, targetDir)).isTrue();
+		assertThat(manifest.isUpToDate(entry, targetDir, ".map")).as("source map is missing").isFalse();
+
+		Files.writeString(targetDir.resolve("app.js.map"), "{}");
+		assertThat(manifest.isUpToDate(entry, targetDir, ".map")).isTrue();
+
+		Files.writeString(srcFile, "let a = 2;");
+		Files.setLastModifiedTime(srcFile, FileTime.fromMillis(1000));
+		assertThat(manifest.isUpToDate(createEntry(manifest, srcFile), targetDir)).as("content changed").isFalse();
+	}
+
+	@Test
+	void testReadKeepsOnlyTheBundleOutputsIfTheConfigChanged() throws IOException {
+		Path manifestFile = this.tempDir.resolve("manifest/build-manifest.json");
+
+		BuildManifest manifest = BuildManifest.empty("config");
+		manifest.add(new BuildManifest.Entry("app.ts", 10, 1000, "hash", "app.js", null));
+		manifest.setImports("app.ts", List.of("~/util"));
+		manifest.setBundleOutputs(List.of("chunk-ABC.js"));
+		manifest.write(manifestFile);
+
+		BuildManifest sameConfigManifest = BuildManifest.read(manifestFile, "config");
+		assertThat(sameConfigManifest.imports("app.ts")).contains(List.of("~/util"));
+		assertThat(sameConfigManifest.bundleOutputs()).containsExactly("chunk-ABC.js");
+
+		BuildManifest changedConfigManifest = BuildManifest.read(manifestFile, "changed-config");
+		assertThat(changedConfigManifest.imports("app.ts")).isEmpty();
+		assertThat(changedConfigManifest.removedIn(BuildManifest.empty("changed-config"))).isEmpty();
+		assertThat(changedConfigManifest.bundleOutputs()).containsExactly("chunk-ABC.js");
+	}
+
+	@Test
+	void testReadOfMissingOrCorruptManifest() throws IOException {
+		Path manifestFile = this.tempDir.resolve("build-manifest.json");
+		assertThat(BuildManifest.read(manifestFile, "config").bundleOutputs()).isEmpty();
+
+		Files.writeString(manifestFile, "{ corrupt");
+		assertThat(BuildManifest.read(manifestFile, "config").bundleOutputs()).isEmpty();
+	}
+
+	@Test
+	void testRemovedIn() {
+		BuildManifest previousManifest = BuildManifest.empty("config");
+		previousManifest.add(new BuildManifest.Entry("app.ts", 10, 1000, "hash", "app.js", null));
+		previousManifest.add(new BuildManifest.Entry("removed.css", 10, 1000, "hash", "removed.css", null));
+
+		BuildManifest manifest = BuildManifest.empty("config");
+		manifest.add(new BuildManifest.Entry("app.ts", 10, 1000, "hash", "app.js", null));
+
+		assertThat(previousManifest.removedIn(manifest)).extracting(BuildManifest.Entry::source)
+				.containsExactly("removed.css");
+	}
+
+	@Test
+	void testHashConfig() {
+		assertThat(BuildManifest.hashConfig("0.17.0", "--minify")).isEqualTo(BuildManifest.hashConfig("0.17.0",
+				"--minify"));
+		assertThat(BuildManifest.hashConfig("0.17.0", "--minify")).isNotEqualTo(BuildManifest.hashConfig("0.17.1",
+				"--minify"));
+		assertThat(BuildManifest.hashConfig("a b", "c")).isNotEqualTo(BuildManifest.hashConfig("a", "b c"));
+	}
+
+	private BuildManifest.Entry createEntry(BuildManifest manifest, Path srcFile) throws IOException {
+		Path srcDir = this.tempDir.resolve("src");
+		Path targetDir = this.tempDir.resolve("target");
+		return manifest.createEntry(srcDir, srcFile, targetDir, PrepareFrontendMojo.toTsTargetFile(srcDir, srcFile,
+				targetDir));
+	}
+}
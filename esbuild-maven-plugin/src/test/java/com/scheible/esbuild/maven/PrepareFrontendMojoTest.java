@@ -0,0 +1,126 @@
+package com.scheible.esbuild.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+class PrepareFrontendMojoTest {
+
+	private static final Log LOG = new SystemStreamLog();
+
+	@TempDir
+	Path tempDir;
+
+	private Path srcDir;
+	private Path targetDir;
+
+	@BeforeEach
+	void createDirs() throws IOException {
+		this.srcDir = Files.createDirectories(this.tempDir.resolve("src"));
+		this.targetDir = Files.createDirectories(this.tempDir.resolve("target"));
+	}
+
+	@Test
+	void testGetOutputFlags() throws MojoExecutionException {
+		// the default is the same as in the dev-server
+		assertThat(PrepareFrontendMojo.getOutputFlags(false, null, false, null, false))
+				.containsExactly("--sourcemap=inline");
+		assertThat(PrepareFrontendMojo.getOutputFlags(true, " es2020 ", true, "External", false))
+				.containsExactly("--minify", "--target=es2020", "--drop:console", "--sourcemap=external");
+		assertThat(PrepareFrontendMojo.getOutputFlags(false, " ", false, "external", true))
+				.containsExactly("--sourcemap=linked");
+		assertThat(PrepareFrontendMojo.getOutputFlags(false, null, false, "none", false)).isEmpty();
+
+		assertThatThrownBy(() -> PrepareFrontendMojo.getOutputFlags(false, null, false, "hidden", false))
+				.isInstanceOf(MojoExecutionException.class).hasMessageContaining("'hidden'");
+	}
+
+	@Test
+	void testGetOutdatedFiles() throws IOException {
+		Path tsSrcFile = Files.writeString(this.srcDir.resolve("app.ts"), "let a = 1;");
+		Path otherTsSrcFile = Files.writeString(this.srcDir.resolve("util.ts"), "let b = 1;");
+
+		BuildManifest firstManifest = BuildManifest.empty("config");
+		assertThat(getOutdatedTsFiles(BuildManifest.empty("config"), firstManifest, List.of(tsSrcFile,
+				otherTsSrcFile))).containsExactly(tsSrcFile, otherTsSrcFile);
+
+		Files.writeString(this.targetDir.resolve("app.js"), "let a = 1;");
+		Files.writeString(this.targetDir.resolve("app.js.map"), "{}");
+		Files.writeString(this.targetDir.resolve("util.js"), "let b = 1;");
+		Files.writeString(this.targetDir.resolve("util.js.map"), "{}");
+		firstManifest.setImports("app.ts", List.of("~/util"));
+
+		BuildManifest secondManifest = BuildManifest.empty("config");
+		assertThat(getOutdatedTsFiles(firstManifest, secondManifest, List.of(tsSrcFile, otherTsSrcFile))).isEmpty();
+		assertThat(secondManifest.imports("app.ts")).as("imports of up to date file are kept").contains(
+				List.of("~/util"));
+
+		Files.delete(this.targetDir.resolve("util.js.map"));
+		assertThat(getOutdatedTsFiles(secondManifest, BuildManifest.empty("config"), List.of(tsSrcFile,
+				otherTsSrcFile))).as("source map was deleted").containsExactly(otherTsSrcFile);
+	}
+
+	@Test
+	void testDeleteRemovedFiles() throws IOException {
+		Files.writeString(this.targetDir.resolve("app.js"), "let a = 1;");
+		Files.writeString(this.targetDir.resolve("app.js.map"), "{}");
+		Files.writeString(this.targetDir.resolve("style.css"), "body {}");
+		Files.writeString(this.targetDir.resolve("kept.js"), "let b = 1;");
+
+		PrepareFrontendMojo.deleteRemovedFiles(List.of(new BuildManifest.Entry("app.ts", 10, 1000, "hash", "app.js",
+				null), new BuildManifest.Entry("style.css", 7, 1000, "hash", "style.css", null),
+				new BuildManifest.Entry("missing.ts", 10, 1000, "hash", "missing.js", null)), this.targetDir, LOG);
+
+		try (var files = Files.list(this.targetDir)) {
+			assertThat(files.map(file -> file.getFileName().toString())).containsExactly("kept.js");
+		}
+	}
+
+	@Test
+	void testGetChunkOutputs() {
+		assertThat(PrepareFrontendMojo.getChunkOutputs(List.of("pages/b.js", "chunk-XYZ.js", "a.js", "chunk-ABC.js",
+				"a.js.map"), this.srcDir, List.of(this.srcDir.resolve("a.ts"), this.srcDir.resolve("pages/b.tsx")),
+				this.targetDir)).containsExactly("chunk-ABC.js", "chunk-XYZ.js");
+	}
+
+	@Test
+	void testWriteModuleGraph() throws IOException {
+		Path appSrcFile = Files.writeString(this.srcDir.resolve("app.ts"), "import './util';");
+		Path utilSrcFile = Files.writeString(this.srcDir.resolve("util.ts"), "export const a = 1;");
+		Files.writeString(this.targetDir.resolve("app.js"), "import './util.js';\nimport './chunk-ABC.js';");
+		Files.writeString(this.targetDir.resolve("chunk-ABC.js"), "import 'lit';");
+		Path moduleGraphFile = this.targetDir.resolve("module-graph.json");
+
+		BuildManifest manifest = BuildManifest.empty("config");
+		manifest.add(new BuildManifest.Entry("app.ts", 10, 1000, "hash", "app.js", null));
+		manifest.add(new BuildManifest.Entry("util.ts", 10, 1000, "hash", "util.js", List.of())); // not rewritten
+
+		PrepareFrontendMojo.writeModuleGraph(this.srcDir, List.of(utilSrcFile, appSrcFile), List.of("chunk-ABC.js"),
+				this.targetDir, this.targetDir, moduleGraphFile, manifest, LOG);
+
+		assertThat(manifest.imports("app.ts")).as("scanned imports are remembered").contains(List.of("~/util",
+				"~/chunk-ABC"));
+		assertThat(Files.readString(moduleGraphFile).replaceAll("\\s", "")).isEqualTo(
+				"{\"~/app\":[\"~/util\",\"~/chunk-ABC\"],\"~/util\":[],\"~/chunk-ABC\":[\"lit\"]}");
+	}
+
+	private Collection<Path> getOutdatedTsFiles(BuildManifest previousManifest, BuildManifest manifest,
+			Collection<Path> tsSrcFiles) throws IOException {
+		return PrepareFrontendMojo.getOutdatedFiles(previousManifest, manifest, this.srcDir, tsSrcFiles,
+				this.targetDir, PrepareFrontendMojo::toTsTargetFile, ".map");
+	}
+}
@@ -1,5 +1,7 @@
 package com.scheible.esbuild.spring;
 
+import com.scheible.esbuild.bindings.cache.TransformCacheKey;
+import com.scheible.esbuild.spring.EsBuildService.TransformedModule;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.RequestDispatcher;
@@ -11,13 +13,22 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaTypeFactory;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -26,7 +37,7 @@ import org.springframework.web.util.UriComponentsBuilder;
  *
  * @author sj
  */
-public class EsBuildFilter implements Filter {
+public class EsBuildFilter implements Filter, FrontendWatcher.Listener {
 
 	private static final String JAVA_SCRIPT_MIME_TYPE = MediaTypeFactory.getMediaType("script.js").get().toString();
 
@@ -34,6 +45,8 @@ public class EsBuildFilter implements Filter {
 	private final ServletContext servletContext;
 	private final EsBuildService esBuildService;
 
+	private final Map<Path, ModuleStamp> moduleStamps = new ConcurrentHashMap<>();
+
 	public EsBuildFilter(ResourceLoader resourceLoader, ServletContext servletContext, EsBuildService esBuildService) {
 		this.resourceLoader = resourceLoader;
 		this.servletContext = servletContext;
@@ -51,21 +64,15 @@ public class EsBuildFilter implements Filter {
 					Resource typeScriptFile = findTypeScriptFile(uriComponents);
 
 					if (typeScriptFile.exists()) {
-						response.setContentType(JAVA_SCRIPT_MIME_TYPE);
-						response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-
-						try (PrintWriter writer = response.getWriter()) {
-							writer.println(this.esBuildService.transform(typeScriptFile.getFilename(),
-									typeScriptFile.getInputStream().readAllBytes()));
-						}
+						serveTypeScriptFile(request, response, typeScriptFile);
 					} else {
 						response.sendError(HttpServletResponse.SC_NOT_FOUND);
 					}
 				} else {
 					String filePath = getPathWithoutFrontendPrefix(uriComponents, this.servletContext.getContextPath());
 					RequestDispatcher dispatcher = servletRequest.getServletContext().getRequestDispatcher(filePath);
-					// also do not cache all other frontend resources by warpping the response with NoStoreResponseWrapper
-					dispatcher.forward(request, new NoStoreResponseWrapper(response));
+					// always revalidate all other frontend resources by warpping the response with NoCacheResponseWrapper
+					dispatcher.forward(request, new NoCacheResponseWrapper(response));
 				}
 
 				return;
@@ -75,6 +82,91 @@ public class EsBuildFilter implements Filter {
 		chain.doFilter(servletRequest, servletResponse);
 	}
 
+	/**
+	 * Transformed modules get a strong ETag (the transform cache key) and must be revalidated by the browser. If the
+	 * size and last modified time of the file did not change since the ETag was issued, a matching
+	 * {@code If-None-Match} is answered with 304 without even reading the file.
+	 */
+	private void serveTypeScriptFile(HttpServletRequest request, HttpServletResponse response, Resource typeScriptFile)
+			throws IOException {
+		// like the paths reported by the watcher
+		Path file = typeScriptFile.getFile().toPath().toAbsolutePath().normalize();
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+		ModuleStamp moduleStamp = this.moduleStamps.get(file);
+		if (moduleStamp != null && moduleStamp.isUnchanged(attributes) && isNotModified(ifNoneMatch, moduleStamp.etag())) {
+			sendNotModified(response, moduleStamp.etag());
+			return;
+		}
+
+		byte[] inputBytes = Files.readAllBytes(file);
+		TransformCacheKey cacheKey = this.esBuildService.cacheKey(typeScriptFile.getFilename(), inputBytes);
+		String etag = "\"" + cacheKey.hash() + "\"";
+
+		if (isNotModified(ifNoneMatch, etag)) {
+			this.moduleStamps.put(file, new ModuleStamp(attributes, etag));
+			sendNotModified(response, etag);
+			return;
+		}
+
+		TransformedModule module = this.esBuildService.transform(cacheKey, file, inputBytes);
+		if (module.error()) {
+			this.moduleStamps.remove(file);
+		} else {
+			this.moduleStamps.put(file, new ModuleStamp(attributes, etag));
+			response.setHeader(HttpHeaders.ETAG, etag);
+		}
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+		response.setContentType(JAVA_SCRIPT_MIME_TYPE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setContentLength(module.code().length);
+
+		// the code is already UTF-8 encoded, no need for a writer
+		try (OutputStream outputStream = response.getOutputStream()) {
+			outputStream.write(module.code());
+		}
+	}
+
+	/**
+	 * The stamps of changed and deleted files are dropped, size and last modified time alone might not reveal a change
+	 * (e.g. a file restored with the same size within the timestamp resolution).
+	 */
+	@Override
+	public void filesChanged(Set<Path> changedFiles, Set<Path> deletedFiles) {
+		this.moduleStamps.keySet().removeAll(changedFiles);
+		FrontendWatcher.removeDeleted(this.moduleStamps, deletedFiles);
+	}
+
+	private static void sendNotModified(HttpServletResponse response, String etag) {
+		response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+	}
+
+	/**
+	 * Weak comparison of the {@code If-None-Match} header value with the (strong) ETag.
+	 */
+	static boolean isNotModified(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+
+		for (String candidate : ifNoneMatch.split(",")) {
+			candidate = candidate.trim();
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+
+			if ("*".equals(candidate) || etag.equals(candidate)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	static boolean isFrontendRequest(UriComponents uriComponents, String contextPath) {
 		if ("".equals(contextPath) && !uriComponents.getPathSegments().isEmpty()
 				&& uriComponents.getPathSegments().get(0).toLowerCase().equals("frontend")) {
@@ -117,16 +209,27 @@ public class EsBuildFilter implements Filter {
 		return file;
 	}
 
-	private static class NoStoreResponseWrapper extends HttpServletResponseWrapper {
+	private record ModuleStamp(long size, FileTime lastModified, String etag) {
+
+		private ModuleStamp(BasicFileAttributes attributes, String etag) {
+			this(attributes.size(), attributes.lastModifiedTime(), etag);
+		}
+
+		private boolean isUnchanged(BasicFileAttributes attributes) {
+			return this.size == attributes.size() && this.lastModified.equals(attributes.lastModifiedTime());
+		}
+	}
+
+	private static class NoCacheResponseWrapper extends HttpServletResponseWrapper {
 
-		private NoStoreResponseWrapper(HttpServletResponse response) {
+		private NoCacheResponseWrapper(HttpServletResponse response) {
 			super(response);
 		}
 
 		@Override
 		public void setHeader(String name, String value) {
 			if ("cache-control".equals(name.toLowerCase())) {
-				super.setHeader(name, "no-store");
+				super.setHeader(name, CacheControl.noCache().getHeaderValue());
 			} else {
 				super.setHeader(name, value);
 			}
@@ -1,104 +1,508 @@
 package com.scheible.esbuild.spring;
 
-import com.scheible.esbuild.bindings.EsBuild;
-import com.scheible.esbuild.bindings.TranspilationError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheible.esbuild.bindings.EsBuildPool;
+import com.scheible.esbuild.bindings.TransformInput;
+import com.scheible.esbuild.bindings.TransformOptions;
+import com.scheible.esbuild.bindings.TranspilationMessage;
+import com.scheible.esbuild.bindings.TranspilationMessage.Location;
 import com.scheible.esbuild.bindings.TranspilationResult;
+import com.scheible.esbuild.bindings.cache.DiskTransformCache;
+import com.scheible.esbuild.bindings.cache.MemoryTransformCache;
+import com.scheible.esbuild.bindings.cache.TransformCache;
+import com.scheible.esbuild.bindings.cache.TransformCache.CacheStatistics;
+import com.scheible.esbuild.bindings.cache.TransformCacheKey;
 import com.scheible.esbuild.bindings.util.TsConfig;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import java.util.Optional;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.unit.DataSize;
 
 /**
  *
  * @author sj
  */
-public class EsBuildService implements ServletContextListener {
+public class EsBuildService implements ServletContextListener, FrontendWatcher.Listener {
 
+	/**
+	 * Only successfully transformed modules are cached (and can be identified by their cache key). The code is UTF-8
+	 * encoded and shared with the cache, it must not be modified.
+	 */
+	public record TransformedModule(byte[] code, boolean error) {
+
+	}
+
+	/**
+	 * Progress of the warm-up, the duration is only present once all files are transformed.
+	 */
+	public record WarmupProgress(int files, int transformedFiles, int errors, Optional<Duration> duration) {
+
+	}
+
+	/**
+	 * Renders all errors and warnings (passed as JSON) into a modal dialog. The elements are created with the DOM API,
+	 * so the messages and the code lines don't have to be escaped.
+	 */
 	private static final String JAVA_SCRIPT_ERROR_DIALOG = """
-        export default undefined;
+		export default undefined;
+
+		const messages = ${messages};
 
 		addEventListener('DOMContentLoaded', event => {
 			if (!('errorOccured' in document.body.dataset)) {
 				document.body.dataset.errorOccured = 'true';
 
-				document.body.insertAdjacentHTML(
-					'afterbegin',
-					`<style>dialog::backdrop { background-color: rgba(160, 160, 160, 0.9); }</style>
-					<dialog id="error-dialog" style="background-color: white; display: inline-block; padding: 0px 4px 0px 4px; font-family: Arial,Helvetica Neue,Helvetica,sans-serif;">
-					<h1 style="color: darkred;">Error</h1>
-					<p>${new URL(import.meta.url).pathname}</p>
-					<div style="display: flex; gap: 4px; border: 1px solid darkgray;">
-						<div id="linenumber" style="background-color: lightgray;">
-							<pre style="font-weight: bold; padding: 0px 8px 0px 8px;">${line}</pre>
-							<div>&nbsp;</div>
-						</div>
-						<div id="source">
-							<pre style="padding-right: 4px;">${codeLine}</pre>
-							<pre>${'-'.repeat(${column})}^</pre>
-						</div>
-					</div>
-					<p>${message}</p>
-				</dialog>`);
-
-                document.getElementById('error-dialog').showModal();
+				const element = (tagName, style, text) => {
+					const created = document.createElement(tagName);
+					if (style) {
+						created.setAttribute('style', style);
+					}
+					if (text !== undefined) {
+						created.textContent = text;
+					}
+					return created;
+				};
+
+				const errorCount = messages.filter(message => message.severity === 'error').length;
+				const warningCount = messages.length - errorCount;
+
+				const dialog = element('dialog', 'background-color: white; display: inline-block; padding: 0px 4px 0px 4px; font-family: Arial,Helvetica Neue,Helvetica,sans-serif;');
+				dialog.append(element('style', undefined, 'dialog::backdrop { background-color: rgba(160, 160, 160, 0.9); }'));
+				dialog.append(element('h1', 'color: darkred;', errorCount + (errorCount === 1 ? ' Error' : ' Errors')
+						+ (warningCount > 0 ? ', ' + warningCount + (warningCount === 1 ? ' Warning' : ' Warnings') : '')));
+				dialog.append(element('p', undefined, new URL(import.meta.url).pathname));
+
+				for (const message of messages) {
+					dialog.append(element('h2', 'font-size: 1em; color: ' + (message.severity === 'error' ? 'darkred' : 'darkorange') + ';',
+							message.severity + ': ' + message.text));
+
+					if (message.line > 0) {
+						const source = element('div', 'display: flex; gap: 4px; border: 1px solid darkgray;');
+						const lineNumber = element('div', 'background-color: lightgray;');
+						lineNumber.append(element('pre', 'font-weight: bold; padding: 0px 8px 0px 8px;', String(message.line)));
+						lineNumber.append(element('div', undefined, '\\u00a0'));
+						const code = element('div');
+						code.append(element('pre', 'padding-right: 4px;', message.lineText));
+						code.append(element('pre', undefined, '-'.repeat(message.column) + '^' + '~'.repeat(Math.max(message.length - 1, 0))));
+						source.append(lineNumber, code);
+						dialog.append(source);
+					}
+
+					if (message.suggestion) {
+						dialog.append(element('p', undefined, 'Suggestion: ' + message.suggestion));
+					}
+
+					if (message.notes.length > 0) {
+						const notes = element('ul');
+						message.notes.forEach(note => notes.append(element('li', undefined, note)));
+						dialog.append(notes);
+					}
+				}
+
+				document.body.prepend(dialog);
+				dialog.showModal();
 			}
 		});""";
 
+	private static final int WARMUP_MAX_IN_FLIGHT = 64;
+
+	private static final DataSize DEFAULT_CACHE_SIZE = DataSize.ofMegabytes(64);
+	private static final DataSize DEFAULT_DISK_CACHE_SIZE = DataSize.ofMegabytes(256);
+
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
 	
 	private final ResourceLoader resourceLoader;
 	private final Optional<String> esBuildVersion;
+	private final Optional<Integer> poolSize;
+	private final TransformCache transformCache;
+	private final DataSize diskCacheSize;
+	private final boolean warmup;
+	private final Path srcDir = Path.of(".", "src", "main", "frontend", "src").toAbsolutePath().normalize();
+	private TransformCache diskTransformCache;
+
+	private final Map<TransformCacheKey, CompletableFuture<TransformedModule>> inFlightTransforms
+			= new ConcurrentHashMap<>();
+	private final Map<Path, TransformCacheKey> latestCacheKeys = new ConcurrentHashMap<>();
+
+	/**
+	 * The results are completed on the read threads of the esbuild processes, writing the disk cache, logging and
+	 * rendering the error dialog would block them (and with them all other transforms of the same process).
+	 */
+	private final ExecutorService completionExecutor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable);
+				thread.setName("EsBuild Completion Thread");
+				thread.setDaemon(true);
+				return thread;
+			});
 
-	private EsBuild esBuild;
-	private String tsConfigJson;
+	private volatile EsBuildPool esBuild;
+	private TransformOptions transformOptions;
 
-	public EsBuildService(ResourceLoader resourceLoader, Optional<String> esBuildVersion) {
+	private volatile WarmupProgress warmupProgress = new WarmupProgress(0, 0, 0, Optional.empty());
+
+	public EsBuildService(ResourceLoader resourceLoader, Optional<String> esBuildVersion, Optional<Integer> poolSize,
+			Optional<DataSize> cacheSize, Optional<DataSize> diskCacheSize, Optional<Boolean> warmup) {
 		this.resourceLoader = resourceLoader;
 		this.esBuildVersion = esBuildVersion;
+		this.poolSize = poolSize;
+		this.transformCache = new MemoryTransformCache(cacheSize.orElse(DEFAULT_CACHE_SIZE).toBytes());
+		this.diskCacheSize = diskCacheSize.orElse(DEFAULT_DISK_CACHE_SIZE);
+		this.warmup = warmup.orElse(Boolean.FALSE);
 	}
 	
 	@Override
 	public void contextInitialized(ServletContextEvent sce) {
 		try {
 			Resource tsConfigResource = resourceLoader.getResource("file:./src/main/frontend/tsconfig.json");
-			this.tsConfigJson = TsConfig.readAsSingleLine(tsConfigResource.getInputStream());
+			String tsConfigJson = TsConfig.readAsSingleLine(tsConfigResource.getInputStream());
+			// encoded only once, the raw tsconfig is part of every transform request
+			this.transformOptions = transformOptions(tsConfigJson);
+
+			this.diskTransformCache = new DiskTransformCache(Path.of(".", "target", DiskTransformCache.DEFAULT_DIRECTORY_NAME),
+					this.diskCacheSize.toBytes());
 
-			this.esBuild = this.esBuildVersion.isEmpty() ? EsBuild.start(Path.of(".")) : EsBuild.start(this.esBuildVersion.get(), Path.of("."));
+			this.esBuild = EsBuildPool.start(this.esBuildVersion.orElse(null), Path.of("."),
+					this.poolSize.orElseGet(EsBuildPool::defaultSize));
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
+
+		if (this.warmup) {
+			Thread warmupThread = new Thread(this::warmup);
+			warmupThread.setName("EsBuild Warm-up Thread");
+			warmupThread.setDaemon(true);
+			warmupThread.start();
+		}
+	}
+
+	static TransformOptions transformOptions(String tsConfigJson) {
+		return TransformOptions.forBrowser(tsConfigJson, List.of("--sourcemap=inline"));
+	}
+
+	/**
+	 * Transforms all files of the src dir as one batch into the memory cache. The flags are encoded only once and at
+	 * most {@value #WARMUP_MAX_IN_FLIGHT} transforms are in-flight, files already in the memory or disk cache are not
+	 * transformed at all. The lib dir is skipped because it only contains type stubs of WebJars that are never served
+	 * by the dev-server.
+	 */
+	private void warmup() {
+		long start = System.nanoTime();
+
+		List<Path> files;
+		try (Stream<Path> paths = Files.walk(this.srcDir)) {
+			files = paths.filter(path -> isTypeScriptFile(path.getFileName().toString()) && Files.isRegularFile(path))
+					.toList();
+		} catch (IOException | UncheckedIOException ex) {
+			this.logger.warn("Warm-up failed to list the files in '{}'.", this.srcDir, ex);
+			return;
+		}
+
+		this.logger.info("Warming up the transform cache with {} files...", files.size());
+		this.warmupProgress = new WarmupProgress(files.size(), 0, 0, Optional.empty());
+
+		AtomicInteger transformedFiles = new AtomicInteger(0);
+		AtomicInteger errors = new AtomicInteger(0);
+		List<TransformInput> inputs = new ArrayList<>();
+		Map<TransformInput, PendingModule> pendingModules = new IdentityHashMap<>();
+		for (Path file : files) {
+			String fileName = file.getFileName().toString();
+
+			byte[] inputBytes;
+			try {
+				inputBytes = Files.readAllBytes(file);
+			} catch (IOException ex) {
+				transformedFiles.incrementAndGet(); // deleted in the meantime
+				continue;
+			}
+
+			TransformCacheKey cacheKey = cacheKey(fileName, inputBytes);
+			this.latestCacheKeys.put(file, cacheKey);
+
+			if (this.transformCache.get(cacheKey).isPresent()) {
+				transformedFiles.incrementAndGet();
+				continue;
+			}
+
+			Optional<byte[]> cachedCode = this.diskTransformCache.get(cacheKey);
+			if (cachedCode.isPresent()) {
+				this.transformCache.put(cacheKey, cachedCode.get());
+				transformedFiles.incrementAndGet();
+				continue;
+			}
+
+			CompletableFuture<TransformedModule> moduleFuture = new CompletableFuture<>();
+			if (this.inFlightTransforms.putIfAbsent(cacheKey, moduleFuture) == null) {
+				TransformInput input = new TransformInput(fileName, inputBytes);
+				inputs.add(input);
+				pendingModules.put(input, new PendingModule(cacheKey, moduleFuture));
+			} else {
+				transformedFiles.incrementAndGet(); // already transformed by a request or the watcher
+			}
+		}
+
+		this.warmupProgress = new WarmupProgress(files.size(), transformedFiles.get(), 0, Optional.empty());
+
+		try {
+			this.esBuild.transformAll(inputs, WARMUP_MAX_IN_FLIGHT, (input, result, throwable) -> {
+				PendingModule pendingModule = pendingModules.get(input);
+				this.completionExecutor.execute(() -> completeTransform(pendingModule.cacheKey(), input.fileName(),
+						pendingModule.moduleFuture(), result, throwable));
+				if (throwable != null || result.error().isPresent()) {
+					errors.incrementAndGet();
+				}
+				this.warmupProgress = new WarmupProgress(files.size(), transformedFiles.incrementAndGet(),
+						errors.get(), Optional.empty());
+				return true;
+			}, this.transformOptions).join();
+		} catch (CompletionException ex) {
+			this.logger.warn("Warm-up failed.", ex.getCause());
+			pendingModules.values().forEach(pendingModule -> {
+				this.inFlightTransforms.remove(pendingModule.cacheKey(), pendingModule.moduleFuture());
+				pendingModule.moduleFuture().completeExceptionally(ex.getCause());
+			});
+		}
+
+		Duration duration = Duration.ofNanos(System.nanoTime() - start);
+		this.warmupProgress = new WarmupProgress(files.size(), transformedFiles.get(), errors.get(),
+				Optional.of(duration));
+		this.logger.info("Warm-up transformed {} files in {} ms ({} errors).", transformedFiles.get(),
+				duration.toMillis(), errors.get());
+	}
+
+	public WarmupProgress warmupProgress() {
+		return this.warmupProgress;
 	}
 
 	public String transform(String fileName, byte[] inputBytes) throws IOException {
 		try {
-			TranspilationResult result = this.esBuild.transform(fileName, inputBytes, "--platform=browser", "--sourcemap=inline", 
-					"--tsconfig-raw=" + this.tsConfigJson).get();
-			if(result.error().isPresent()) {
-				this.logger.error(result.error().get().message() + " at " + result.error().get().line() + ":"
-						+ result.error().get().column() + " in '" + fileName + "'");
-			}
-			return result.codeOrElse(EsBuildService::renderErrorJavaScript);
+			return new String(transformAsync(cacheKey(fileName, inputBytes), fileName, inputBytes).get().code(),
+					StandardCharsets.UTF_8);
 		} catch (InterruptedException | ExecutionException ex) {
 			throw new IOException(ex);
 		}
 	}
+
+	/**
+	 * The key covers the esbuild version, the file name, the content and all flags (including the tsconfig). The same
+	 * key therefore always means the same transformed code.
+	 */
+	public TransformCacheKey cacheKey(String fileName, byte[] inputBytes) {
+		return TransformCacheKey.of(this.esBuild.version(), fileName, inputBytes, this.transformOptions);
+	}
+
+	/**
+	 * The output of the previous content of the file is dropped from the memory cache.
+	 */
+	public TransformedModule transform(TransformCacheKey cacheKey, Path file, byte[] inputBytes) throws IOException {
+		TransformCacheKey previousCacheKey = this.latestCacheKeys.put(file.toAbsolutePath().normalize(), cacheKey);
+		if (previousCacheKey != null && !previousCacheKey.equals(cacheKey)) {
+			this.transformCache.remove(previousCacheKey);
+		}
+
+		try {
+			return transformAsync(cacheKey, file.getFileName().toString(), inputBytes).get();
+		} catch (InterruptedException | ExecutionException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	/**
+	 * Checks the memory cache, a transform of the same content that is already in-flight (e.g. started by the
+	 * watcher), the disk cache and only then calls esbuild.
+	 */
+	private CompletableFuture<TransformedModule> transformAsync(TransformCacheKey cacheKey, String fileName,
+			byte[] inputBytes) {
+		Optional<byte[]> cachedCode = this.transformCache.get(cacheKey);
+		if (cachedCode.isPresent()) {
+			return CompletableFuture.completedFuture(
+					new TransformedModule(cachedCode.get(), false));
+		}
+
+		CompletableFuture<TransformedModule> moduleFuture = new CompletableFuture<>();
+		CompletableFuture<TransformedModule> inFlightModuleFuture = this.inFlightTransforms.putIfAbsent(cacheKey,
+				moduleFuture);
+		if (inFlightModuleFuture != null) {
+			return inFlightModuleFuture;
+		}
+
+		cachedCode = this.diskTransformCache.get(cacheKey);
+		if (cachedCode.isPresent()) {
+			this.transformCache.put(cacheKey, cachedCode.get());
+			this.inFlightTransforms.remove(cacheKey, moduleFuture);
+			moduleFuture.complete(new TransformedModule(cachedCode.get(), false));
+			return moduleFuture;
+		}
+
+		this.esBuild.transformAsync(fileName, inputBytes, this.transformOptions).whenCompleteAsync((result, throwable)
+				-> completeTransform(cacheKey, fileName, moduleFuture, result, throwable), this.completionExecutor);
+
+		return moduleFuture;
+	}
+
+	/**
+	 * Caches a successful result and completes the in-flight module future. Runs on the completion executor, never on
+	 * the read thread of an esbuild process.
+	 */
+	private void completeTransform(TransformCacheKey cacheKey, String fileName,
+			CompletableFuture<TransformedModule> moduleFuture, TranspilationResult result, Throwable throwable) {
+		// cached before the removal, later requests then hit the cache
+		if (result != null && result.error().isEmpty()) {
+			byte[] code = result.codeBytes().get();
+			this.transformCache.put(cacheKey, code);
+			try {
+				this.diskTransformCache.put(cacheKey, code);
+			} catch (UncheckedIOException ex) {
+				this.logger.warn("Could not write '{}' to the disk cache.", fileName, ex);
+			}
+		}
+		this.inFlightTransforms.remove(cacheKey, moduleFuture);
+
+		if (throwable != null) {
+			moduleFuture.completeExceptionally(throwable);
+		} else {
+			// the warnings are only decoded if there are any
+			result.errors().forEach(error -> this.logger.error(toLogMessage(error, fileName)));
+			result.warnings().forEach(warning -> this.logger.warn(toLogMessage(warning, fileName)));
+
+			moduleFuture.complete(new TransformedModule(result.codeBytes().orElseGet(()
+					-> renderErrorJavaScript(result).getBytes(StandardCharsets.UTF_8)), result.error().isPresent()));
+		}
+	}
+
+	private record PendingModule(TransformCacheKey cacheKey, CompletableFuture<TransformedModule> moduleFuture) {
+
+	}
+
+	/**
+	 * Transforms the changed files eagerly in the background (requests then almost never have to wait for esbuild)
+	 * and drops the output of deleted files.
+	 */
+	@Override
+	public void filesChanged(Set<Path> changedFiles, Set<Path> deletedFiles) {
+		if (this.esBuild == null) {
+			return;
+		}
+
+		FrontendWatcher.removeDeleted(this.latestCacheKeys, deletedFiles).forEach(this.transformCache::remove);
+
+		int transformCount = 0;
+		for (Path changedFile : changedFiles) {
+			if (changedFile.startsWith(this.srcDir) && isTypeScriptFile(changedFile.getFileName().toString())
+					&& preTransform(changedFile).isPresent()) {
+				transformCount++;
+			}
+		}
+
+		if (transformCount > 0) {
+			this.logger.debug("Transforming {} changed files in the background.", transformCount);
+		}
+	}
+
+	/**
+	 * Starts the transform of the file in the background (if it could be read) and drops the output of its previous
+	 * content.
+	 */
+	private Optional<CompletableFuture<TransformedModule>> preTransform(Path file) {
+		String fileName = file.getFileName().toString();
+
+		byte[] inputBytes;
+		try {
+			inputBytes = Files.readAllBytes(file);
+		} catch (IOException ex) {
+			return Optional.empty(); // deleted in the meantime
+		}
+
+		TransformCacheKey cacheKey = cacheKey(fileName, inputBytes);
+		TransformCacheKey previousCacheKey = this.latestCacheKeys.put(file, cacheKey);
+		if (previousCacheKey != null && !previousCacheKey.equals(cacheKey)) {
+			this.transformCache.remove(previousCacheKey);
+		}
+
+		return Optional.of(transformAsync(cacheKey, fileName, inputBytes));
+	}
+
+	private static boolean isTypeScriptFile(String fileName) {
+		String lowerCaseFileName = fileName.toLowerCase();
+		return lowerCaseFileName.endsWith(".ts") || lowerCaseFileName.endsWith(".tsx");
+	}
+
+	public CacheStatistics cacheStatistics() {
+		return this.transformCache.statistics();
+	}
+
+	public CacheStatistics diskCacheStatistics() {
+		return this.diskTransformCache.statistics();
+	}
 	
-	private static String renderErrorJavaScript(TranspilationError error) {
-		return JAVA_SCRIPT_ERROR_DIALOG.replace("${line}", Integer.toString(error.line()))
-				.replace("${column}", Integer.toString(error.column())).replace("${message}", error.message())
-				.replace("${codeLine}", error.codeLine());
+	private static String toLogMessage(TranspilationMessage message, String fileName) {
+		return message.text() + message.location().map(location -> " at " + location.line() + ":" + location.column())
+				.orElse("") + " in '" + fileName + "'";
+	}
+
+	/**
+	 * All errors and warnings are rendered at once, so that they can be fixed without a reload for every error.
+	 */
+	private String renderErrorJavaScript(TranspilationResult result) {
+		List<OverlayMessage> messages = new ArrayList<>();
+		result.errors().forEach(error -> messages.add(OverlayMessage.of("error", error)));
+		result.warnings().forEach(warning -> messages.add(OverlayMessage.of("warning", warning)));
+
+		try {
+			return JAVA_SCRIPT_ERROR_DIALOG.replace("${messages}", this.objectMapper.writeValueAsString(messages));
+		} catch (JsonProcessingException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * A flattened {@link TranspilationMessage} for the error dialog, line is 0 if the message has no location. Column
+	 * and length are converted from UTF-8 bytes to the chars of the line text, otherwise the caret would be misplaced
+	 * on lines with non-ASCII text.
+	 */
+	private record OverlayMessage(String severity, String text, int line, int column, int length, String lineText,
+			String suggestion, List<String> notes) {
+
+		private static OverlayMessage of(String severity, TranspilationMessage message) {
+			Optional<Location> location = message.location();
+			return new OverlayMessage(severity, message.text(), location.map(Location::line).orElse(0),
+					location.map(Location::lineTextColumn).orElse(0), location.map(Location::lineTextLength).orElse(0),
+					location.map(Location::lineText).orElse(""), location.map(Location::suggestion).orElse(""),
+					message.notes().stream().map(TranspilationMessage.Note::text).toList());
+		}
 	}
 
 	@Override
 	public void contextDestroyed(ServletContextEvent sce) {
+		this.logger.info("Transform cache statistics: {} (memory), {} (disk)", this.transformCache.statistics(),
+				this.diskTransformCache.statistics());
 		this.esBuild.stop();
+		this.completionExecutor.shutdown();
 	}
 }
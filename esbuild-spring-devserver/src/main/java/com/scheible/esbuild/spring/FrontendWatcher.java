@@ -0,0 +1,232 @@
+package com.scheible.esbuild.spring;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the frontend directories (recursively) for changed files. Changes are debounced: listeners are notified
+ * with a single batch once no further change happened for the debounce duration (or at the latest after ten times the
+ * debounce duration). That way e.g. a {@code git checkout} touching thousands of files is processed as one burst.
+ *
+ * @author sj
+ */
+public class FrontendWatcher implements ServletContextListener {
+
+	public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+
+	/**
+	 * Called on the watch thread, long running work should be done asynchronously. A deleted (or moved away) directory
+	 * is only reported itself and not with the files it contained, see {@link #removeDeleted(Map, Set)}.
+	 */
+	public interface Listener {
+
+		void filesChanged(Set<Path> changedFiles, Set<Path> deletedFiles);
+	}
+
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final List<Path> rootDirs;
+	private final Duration debounce;
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+	private WatchService watchService;
+	private Thread watchThread;
+
+	public FrontendWatcher(List<Path> rootDirs, Duration debounce) {
+		this.rootDirs = rootDirs.stream().map(rootDir -> rootDir.toAbsolutePath().normalize()).toList();
+		this.debounce = debounce;
+	}
+
+	public void addListener(Listener listener) {
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void contextInitialized(ServletContextEvent sce) {
+		try {
+			start();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	public synchronized void start() throws IOException {
+		this.watchService = FileSystems.getDefault().newWatchService();
+		for (Path rootDir : this.rootDirs) {
+			if (Files.isDirectory(rootDir)) {
+				registerRecursively(rootDir, new LinkedHashSet<>());
+			}
+		}
+
+		this.watchThread = new Thread(this::watch);
+		this.watchThread.setName("Frontend Watch Thread");
+		this.watchThread.setDaemon(true);
+		this.watchThread.start();
+		this.logger.info("Watching {} for changes...", this.rootDirs);
+	}
+
+	private void watch() {
+		Set<Path> changedFiles = new LinkedHashSet<>();
+		Set<Path> deletedFiles = new LinkedHashSet<>();
+		long batchStart = 0;
+
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				boolean pendingBatch = !changedFiles.isEmpty() || !deletedFiles.isEmpty();
+				WatchKey watchKey = pendingBatch
+						? this.watchService.poll(this.debounce.toMillis(), TimeUnit.MILLISECONDS)
+						: this.watchService.take();
+
+				if (watchKey != null) {
+					if (!pendingBatch) {
+						batchStart = System.nanoTime();
+					}
+
+					collectChanges(watchKey, changedFiles, deletedFiles);
+				}
+
+				boolean quiet = watchKey == null;
+				boolean overdue = System.nanoTime() - batchStart > this.debounce.multipliedBy(10).toNanos();
+				if ((quiet || overdue) && (!changedFiles.isEmpty() || !deletedFiles.isEmpty())) {
+					notifyListeners(changedFiles, deletedFiles);
+					changedFiles = new LinkedHashSet<>();
+					deletedFiles = new LinkedHashSet<>();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException ex) {
+			// watcher was stopped
+		}
+	}
+
+	private void collectChanges(WatchKey watchKey, Set<Path> changedFiles, Set<Path> deletedFiles) {
+		Path dir = this.watchedDirs.get(watchKey);
+
+		for (WatchEvent<?> event : watchKey.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				// events were lost, everything might have changed
+				for (Path rootDir : this.rootDirs) {
+					if (Files.isDirectory(rootDir)) {
+						registerRecursively(rootDir, changedFiles);
+					}
+				}
+			} else if (dir != null) {
+				Path file = dir.resolve((Path) event.context());
+
+				if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+					changedFiles.removeIf(changedFile -> changedFile.startsWith(file)); // file might be a directory
+					deletedFiles.add(file);
+				} else if (Files.isDirectory(file)) {
+					if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+						registerRecursively(file, changedFiles);
+					}
+				} else {
+					deletedFiles.remove(file);
+					changedFiles.add(file);
+				}
+			}
+		}
+
+		if (!watchKey.reset()) {
+			this.watchedDirs.remove(watchKey);
+		}
+	}
+
+	/**
+	 * Registers the directory and all its sub-directories, all contained files are added to the changed files.
+	 */
+	private void registerRecursively(Path rootDir, Set<Path> changedFiles) {
+		try (Stream<Path> paths = Files.walk(rootDir)) {
+			for (Path path : (Iterable<Path>) paths::iterator) {
+				if (Files.isDirectory(path)) {
+					if (!this.watchedDirs.containsValue(path)) {
+						this.watchedDirs.put(path.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+								StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), path);
+					}
+				} else {
+					changedFiles.add(path);
+				}
+			}
+		} catch (IOException | UncheckedIOException ex) {
+			this.logger.warn("Could not watch '{}' for changes.", rootDir, ex);
+		}
+	}
+
+	private void notifyListeners(Set<Path> changedFiles, Set<Path> deletedFiles) {
+		this.logger.debug("{} changed and {} deleted files.", changedFiles.size(), deletedFiles.size());
+
+		for (Listener listener : this.listeners) {
+			try {
+				listener.filesChanged(Collections.unmodifiableSet(changedFiles),
+						Collections.unmodifiableSet(deletedFiles));
+			} catch (RuntimeException ex) {
+				this.logger.error("Error notifying listener about changed files.", ex);
+			}
+		}
+	}
+
+	/**
+	 * Removes the entries of all deleted files, including all files below deleted directories, and returns their
+	 * values.
+	 */
+	public static <V> List<V> removeDeleted(Map<Path, V> filesMap, Set<Path> deletedFiles) {
+		List<V> removedValues = new ArrayList<>();
+		if (deletedFiles.isEmpty()) {
+			return removedValues;
+		}
+
+		for (Iterator<Map.Entry<Path, V>> it = filesMap.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Path, V> entry = it.next();
+			if (deletedFiles.stream().anyMatch(deletedFile -> entry.getKey().startsWith(deletedFile))) {
+				removedValues.add(entry.getValue());
+				it.remove();
+			}
+		}
+		return removedValues;
+	}
+
+	public List<Path> rootDirs() {
+		return this.rootDirs;
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent sce) {
+		stop();
+	}
+
+	public synchronized void stop() {
+		if (this.watchThread != null) {
+			this.watchThread.interrupt();
+			try {
+				this.watchService.close();
+			} catch (IOException ex) {
+				this.logger.debug("Error closing the watch service.", ex);
+			}
+			this.watchThread = null;
+		}
+	}
+}
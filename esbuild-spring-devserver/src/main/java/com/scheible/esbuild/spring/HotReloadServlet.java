@@ -0,0 +1,243 @@
+package com.scheible.esbuild.spring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Pushes changes of the frontend files as Server-Sent Events to the browser. Must be mapped to
+ * {@value #PATH_PREFIX}{@code /*} with async support. The client script ({@value #CLIENT_SCRIPT_PATH}) swaps changed
+ * style sheets in place and re-imports changed modules if a listener of the {@code esbuild:hot-reload} event cancelled
+ * it. Otherwise (and always if a file was deleted) the page is reloaded. The events are sent by a separate thread, a
+ * slow client does not block the watcher.
+ *
+ * @author sj
+ */
+public class HotReloadServlet extends HttpServlet implements FrontendWatcher.Listener {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String EVENTS_PATH = "/events";
+	private static final String CLIENT_SCRIPT_FILE_PATH = "/hot-reload.js";
+
+	public static final String PATH_PREFIX = "/esbuild-devserver";
+	public static final String CLIENT_SCRIPT_PATH = PATH_PREFIX + CLIENT_SCRIPT_FILE_PATH;
+	public static final String BARE_IMPORT = "~/esbuild-devserver/hot-reload";
+
+	private static final String CLIENT_SCRIPT = """
+		const eventSource = new EventSource(new URL('events', import.meta.url));
+
+		eventSource.addEventListener('change', event => {
+			const change = JSON.parse(event.data);
+			if (change.reload) {
+				location.reload();
+				return;
+			}
+
+			const withRevision = url => url + '?rev=' + encodeURIComponent(change.revision);
+
+			// style sheets are swapped without reloading the page
+			for (const link of document.querySelectorAll('link[rel="stylesheet"]')) {
+				const url = new URL(link.href);
+				if (change.resources.includes(url.pathname)) {
+					link.href = withRevision(url.pathname);
+				}
+			}
+
+			if (change.modules.length > 0) {
+				const hotReloadEvent = new CustomEvent('esbuild:hot-reload', { cancelable: true, detail: change });
+				if (dispatchEvent(hotReloadEvent)) {
+					location.reload();
+				} else {
+					change.modules.forEach(module => import(withRevision(module)));
+				}
+			}
+		});""";
+
+	protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final transient ObjectMapper objectMapper = new ObjectMapper();
+
+	private final transient Path srcDir;
+	private final String appRevision;
+	private final AtomicInteger changeCounter = new AtomicInteger(0);
+
+	private final transient List<AsyncContext> clients = new CopyOnWriteArrayList<>();
+
+	// a single thread keeps the events in order
+	private final transient ExecutorService sendExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable);
+		thread.setName("Hot Reload Send Thread");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private String contextPath = "";
+
+	public HotReloadServlet(Path srcDir, AppRevision appRevision) {
+		this.srcDir = srcDir.toAbsolutePath().normalize();
+		this.appRevision = appRevision.value();
+	}
+
+	@Override
+	public void init() {
+		this.contextPath = getServletContext().getContextPath();
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (EVENTS_PATH.equals(request.getPathInfo())) {
+			subscribe(request, response);
+		} else if (CLIENT_SCRIPT_FILE_PATH.equals(request.getPathInfo())) {
+			response.setContentType("text/javascript");
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+			response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+			try (PrintWriter writer = response.getWriter()) {
+				writer.println(CLIENT_SCRIPT);
+			}
+		} else {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+		}
+	}
+
+	private void subscribe(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(0);
+		asyncContext.addListener(new AsyncListener() {
+			@Override
+			public void onComplete(AsyncEvent event) {
+				HotReloadServlet.this.clients.remove(asyncContext);
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+				HotReloadServlet.this.clients.remove(asyncContext);
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+				HotReloadServlet.this.clients.remove(asyncContext);
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+		});
+
+		response.getWriter().write("retry: 1000\n\n");
+		response.flushBuffer();
+		this.clients.add(asyncContext);
+	}
+
+	@Override
+	public void filesChanged(Set<Path> changedFiles, Set<Path> deletedFiles) {
+		toChange(changedFiles, deletedFiles).ifPresent(change -> {
+			try {
+				String changeJson = this.objectMapper.writeValueAsString(change);
+				this.sendExecutor.execute(() -> send(changeJson));
+			} catch (JsonProcessingException ex) {
+				this.logger.error("Error serializing the change event.", ex);
+			} catch (RejectedExecutionException ex) {
+				this.logger.debug("Change event not sent, the servlet was destroyed.");
+			}
+		});
+	}
+
+	/**
+	 * The change of the files below the src dir, if any. A deleted file (or directory) can't be swapped or
+	 * re-imported, the page has to be reloaded instead (to show the error of a now missing import, for example).
+	 */
+	Optional<Change> toChange(Set<Path> changedFiles, Set<Path> deletedFiles) {
+		List<String> modules = new ArrayList<>();
+		List<String> resources = new ArrayList<>();
+
+		for (Path changedFile : changedFiles) {
+			if (changedFile.startsWith(this.srcDir)) {
+				String url = toUrl(this.srcDir.relativize(changedFile));
+				String lowerCaseUrl = url.toLowerCase();
+				if (lowerCaseUrl.endsWith(".ts") || lowerCaseUrl.endsWith(".tsx")) {
+					modules.add(url.substring(0, url.lastIndexOf('.')) + ".js");
+				} else {
+					resources.add(url);
+				}
+			}
+		}
+
+		boolean reload = deletedFiles.stream().anyMatch(deletedFile -> deletedFile.startsWith(this.srcDir));
+
+		if (!modules.isEmpty() || !resources.isEmpty() || reload) {
+			String revision = this.appRevision + "-" + this.changeCounter.incrementAndGet();
+			return Optional.of(new Change(revision, modules, resources, reload));
+		} else {
+			return Optional.empty();
+		}
+	}
+
+	private void send(String changeJson) {
+		for (AsyncContext client : this.clients) {
+			try {
+				PrintWriter writer = client.getResponse().getWriter();
+				writer.write("event: change\ndata: " + changeJson + "\n\n");
+				client.getResponse().flushBuffer();
+				if (writer.checkError()) {
+					throw new IOException("Client has disconnected.");
+				}
+			} catch (IOException | IllegalStateException ex) {
+				this.clients.remove(client);
+				try {
+					client.complete();
+				} catch (IllegalStateException completeEx) {
+					// already completed by the container
+				}
+			}
+		}
+	}
+
+	/**
+	 * The URL of a file below the src dir like {@code EsBuildFilter} serves it.
+	 */
+	private String toUrl(Path relativeFile) {
+		return IntStream.range(0, relativeFile.getNameCount()).mapToObj(i -> relativeFile.getName(i).toString())
+				.collect(Collectors.joining("/", this.contextPath + "/frontend/", ""));
+	}
+
+	@Override
+	public void destroy() {
+		this.sendExecutor.shutdown();
+		this.clients.forEach(AsyncContext::complete);
+		this.clients.clear();
+	}
+
+	record Change(String revision, List<String> modules, List<String> resources, boolean reload) {
+
+	}
+}
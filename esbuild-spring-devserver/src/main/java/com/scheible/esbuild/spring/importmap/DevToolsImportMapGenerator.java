@@ -4,14 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.scheible.esbuild.bindings.util.ImportMapGenerator;
 import com.scheible.esbuild.bindings.util.ImportMapper;
+import com.scheible.esbuild.spring.FrontendWatcher;
+import com.scheible.esbuild.spring.HotReloadServlet;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -20,52 +23,161 @@ import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.stereotype.Component;
 
 /**
+ * Scans the src and lib dir for script files. With a {@link FrontendWatcher} the imports are scanned only once and
+ * then updated incrementally from the change events. The import map is compiled into a template once and the
+ * rendered import map is cached per parameter set. Without a watcher the dirs are scanned on every call.
  *
  * @author sj
  */
 @Component
-public class DevToolsImportMapGenerator implements ImportMapGenerator {
+public class DevToolsImportMapGenerator implements ImportMapGenerator, FrontendWatcher.Listener {
+
+	private static final String SRC_LOCATION = "file:./src/main/frontend/src";
+	private static final String LIB_LOCATION = "file:./src/main/frontend/lib";
 
 	private final ObjectMapper objectMapper = new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true);
 
 	private final ResourcePatternResolver resourceResolver;
+	private final boolean watched;
+	private final boolean hotReload;
+
+	private Path srcDir;
+	private Path libDir;
+	private Map<Path, Map.Entry<String, String>> imports = null; // guarded by this
+	private PlaceHolderTemplate importMapTemplate = null; // guarded by this
+
+	private final Map<Map<String, String>, String> renderedImportMaps = new ConcurrentHashMap<>();
 
 	public DevToolsImportMapGenerator(ResourceLoader resourceLoader) {
+		this(resourceLoader, Optional.empty(), false);
+	}
+
+	/**
+	 * With hot reload the client script of the {@link HotReloadServlet} is importable with
+	 * {@value HotReloadServlet#BARE_IMPORT}.
+	 */
+	public DevToolsImportMapGenerator(ResourceLoader resourceLoader, Optional<FrontendWatcher> frontendWatcher,
+			boolean hotReload) {
 		this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+		this.watched = frontendWatcher.isPresent();
+		this.hotReload = hotReload;
+
+		frontendWatcher.ifPresent(watcher -> watcher.addListener(this));
 	}
 
 	@Override
 	public String generate(Map<String, String> params) {
+		if (this.watched) {
+			String importMapJson = this.renderedImportMaps.get(params);
+			if (importMapJson != null) {
+				return importMapJson;
+			}
+		}
+
+		synchronized (this) {
+			if (!this.watched || this.imports == null) {
+				this.imports = scanImports();
+				this.importMapTemplate = null;
+			}
+			if (this.importMapTemplate == null) {
+				this.importMapTemplate = PlaceHolderTemplate.compile(toImportMapJson());
+			}
+
+			return this.renderedImportMaps.computeIfAbsent(Map.copyOf(params), this.importMapTemplate::render);
+		}
+	}
+
+	private String toImportMapJson() {
 		try {
-			Map<String, String> imports = new HashMap<>(getImports("file:./src/main/frontend/src",
-					ImportMapper.FRONTEND_PREFIX_PLACEHOLDER));
-			imports.putAll(getImports("file:./src/main/frontend/lib", ImportMapper.LIBRARY_PREFIX_PLACEHOLDER));
+			Map<String, String> importMapImports = new HashMap<>();
+			this.imports.values().forEach(entry -> importMapImports.put(entry.getKey(), entry.getValue()));
+			if (this.hotReload) {
+				// the servlet is mapped next to (and not below) the frontend prefix
+				importMapImports.put(HotReloadServlet.BARE_IMPORT, ImportMapper.FRONTEND_PREFIX_PLACEHOLDER + "/.."
+						+ HotReloadServlet.CLIENT_SCRIPT_PATH + "?rev=" + ImportMapper.APP_REVISION_PLACEHOLDER);
+			}
 
-			Map<String, Map<String, String>> importMap = ImportMapGenerator.toImportMap(imports);
+			Map<String, Map<String, String>> importMap = ImportMapGenerator.toImportMap(importMapImports);
 
-			String importMapJson = this.objectMapper.writeValueAsString(importMap);
-			return PlaceHolderReplacer.replace(importMapJson, params);
+			return this.objectMapper.writeValueAsString(importMap);
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
 	}
 
-	private Map<String, String> getImports(String rootLocation, String prefixPlaceHolderName) throws IOException {
+	/**
+	 * Only added and removed script files change the import map, modified files are ignored.
+	 */
+	@Override
+	public synchronized void filesChanged(Set<Path> changedFiles, Set<Path> deletedFiles) {
+		if (this.imports == null) {
+			return; // not scanned yet, the first scan will see the changes anyway
+		}
+
+		boolean importsChanged = !FrontendWatcher.removeDeleted(this.imports, deletedFiles).isEmpty();
+
+		for (Path changedFile : changedFiles) {
+			if (!this.imports.containsKey(changedFile) && isScriptFile(changedFile)) {
+				if (this.srcDir != null && changedFile.startsWith(this.srcDir)) {
+					this.imports.put(changedFile, toImport(this.srcDir, changedFile,
+							ImportMapper.FRONTEND_PREFIX_PLACEHOLDER));
+					importsChanged = true;
+				} else if (this.libDir != null && changedFile.startsWith(this.libDir)) {
+					this.imports.put(changedFile, toImport(this.libDir, changedFile,
+							ImportMapper.LIBRARY_PREFIX_PLACEHOLDER));
+					importsChanged = true;
+				}
+			}
+		}
+
+		if (importsChanged) {
+			this.importMapTemplate = null;
+			this.renderedImportMaps.clear();
+		}
+	}
+
+	private Map<Path, Map.Entry<String, String>> scanImports() {
+		try {
+			this.renderedImportMaps.clear();
+
+			Map<Path, Map.Entry<String, String>> scannedImports = new HashMap<>();
+			this.srcDir = getImports(SRC_LOCATION, ImportMapper.FRONTEND_PREFIX_PLACEHOLDER, scannedImports);
+			this.libDir = getImports(LIB_LOCATION, ImportMapper.LIBRARY_PREFIX_PLACEHOLDER, scannedImports);
+			return scannedImports;
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Adds the imports of all script files below the root location and returns the root dir (if it exists).
+	 */
+	private Path getImports(String rootLocation, String prefixPlaceHolderName,
+			Map<Path, Map.Entry<String, String>> scannedImports) throws IOException {
 		Resource rootResource = this.resourceResolver.getResource(rootLocation);
 		if (rootResource.exists()) {
-			Path frontendDir = rootResource.getFile().toPath().toAbsolutePath();
+			Path frontendDir = rootResource.getFile().toPath().toAbsolutePath().normalize();
 			List<Resource> scriptFiles = Stream.concat(Stream.of(
 					this.resourceResolver.getResources(rootLocation + "/**/*.ts")), Stream.of(
 					this.resourceResolver.getResources(rootLocation + "/**/*.tsx"))).toList();
 
-			List<Path> relativeScriptFiles = new ArrayList<>();
 			for (Resource scriptFile : scriptFiles) {
-				relativeScriptFiles.add(frontendDir.relativize(scriptFile.getFile().toPath()));
+				Path file = scriptFile.getFile().toPath().toAbsolutePath().normalize();
+				scannedImports.put(file, toImport(frontendDir, file, prefixPlaceHolderName));
 			}
 
-			return ImportMapper.map(relativeScriptFiles, prefixPlaceHolderName);
+			return frontendDir;
 		} else {
-			return Collections.emptyMap();
+			return null;
 		}
 	}
+
+	private static Map.Entry<String, String> toImport(Path rootDir, Path file, String prefixPlaceHolderName) {
+		return ImportMapper.map(List.of(rootDir.relativize(file)), prefixPlaceHolderName).entrySet().iterator().next();
+	}
+
+	private static boolean isScriptFile(Path file) {
+		String fileName = file.getFileName().toString().toLowerCase();
+		return fileName.endsWith(".ts") || fileName.endsWith(".tsx");
+	}
 }
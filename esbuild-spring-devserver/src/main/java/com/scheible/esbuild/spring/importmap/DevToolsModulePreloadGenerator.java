@@ -0,0 +1,19 @@
+package com.scheible.esbuild.spring.importmap;
+
+import com.scheible.esbuild.bindings.util.ModulePreloadGenerator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modules are not preloaded in development. They are transformed on demand by the dev-server anyway and that way the
+ * preloads can never be stale after an import was changed.
+ *
+ * @author sj
+ */
+public class DevToolsModulePreloadGenerator implements ModulePreloadGenerator {
+
+	@Override
+	public List<String> generate(String entryImport, Map<String, String> params) {
+		return List.of();
+	}
+}
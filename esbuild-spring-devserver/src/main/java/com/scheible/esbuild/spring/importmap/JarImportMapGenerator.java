@@ -5,28 +5,45 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
 /**
+ * The import map is read and compiled only once, the rendered import map is cached per parameter set (e.g. different
+ * context paths).
  *
  * @author sj
  */
 public class JarImportMapGenerator implements ImportMapGenerator {
-	private String cachedImportMap = null;
+
+	private volatile PlaceHolderTemplate importMapTemplate = null;
+	private final Map<Map<String, String>, String> renderedImportMaps = new ConcurrentHashMap<>();
 
 	@Override
 	public String generate(Map<String, String> params) {
-		if (this.cachedImportMap == null) {
+		String importMapJson = this.renderedImportMaps.get(params);
+		if (importMapJson == null) {
+			importMapJson = this.renderedImportMaps.computeIfAbsent(Map.copyOf(params),
+					copiedParams -> getImportMapTemplate().render(copiedParams));
+		}
+
+		return importMapJson;
+	}
+
+	private PlaceHolderTemplate getImportMapTemplate() {
+		PlaceHolderTemplate template = this.importMapTemplate;
+		if (template == null) {
 			try {
 				Resource importMapFile = new ClassPathResource("/import-map.json");
 				String importMapJson = new String(importMapFile.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-				this.cachedImportMap = PlaceHolderReplacer.replace(importMapJson, params);;
+				template = PlaceHolderTemplate.compile(importMapJson);
+				this.importMapTemplate = template;
 			} catch (IOException ex) {
 				throw new UncheckedIOException(ex);
 			}
 		}
 
-		return this.cachedImportMap;
+		return template;
 	}
 }
@@ -0,0 +1,87 @@
+package com.scheible.esbuild.spring.importmap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheible.esbuild.bindings.util.ModuleGraph;
+import com.scheible.esbuild.bindings.util.ModulePreloadGenerator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Uses the module graph and the import map generated by the esbuild-maven-plugin. Without a module graph (e.g. built
+ * by an older version of the plugin) no modules are preloaded. The preloads are cached per entry import and parameter
+ * set.
+ *
+ * @author sj
+ */
+public class JarModulePreloadGenerator implements ModulePreloadGenerator {
+
+	private record CacheKey(String entryImport, Map<String, String> params) {
+
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private volatile ModuleGraph moduleGraph = null;
+	private volatile Map<String, String> imports = null;
+
+	private final Map<String, List<PlaceHolderTemplate>> urlTemplates = new ConcurrentHashMap<>();
+	private final Map<CacheKey, List<String>> renderedPreloads = new ConcurrentHashMap<>();
+
+	@Override
+	public List<String> generate(String entryImport, Map<String, String> params) {
+		return this.renderedPreloads.computeIfAbsent(new CacheKey(entryImport, Map.copyOf(params)),
+				key -> this.urlTemplates.computeIfAbsent(entryImport, this::compileUrlTemplates).stream()
+						.map(urlTemplate -> urlTemplate.render(key.params())).toList());
+	}
+
+	/**
+	 * Only modules that are mapped in the import map can be preloaded.
+	 */
+	private List<PlaceHolderTemplate> compileUrlTemplates(String entryImport) {
+		Map<String, String> importMapImports = getImports();
+		return getModuleGraph().transitiveImports(entryImport).stream().filter(importMapImports::containsKey)
+				.map(module -> PlaceHolderTemplate.compile(importMapImports.get(module))).toList();
+	}
+
+	private ModuleGraph getModuleGraph() {
+		ModuleGraph graph = this.moduleGraph;
+		if (graph == null) {
+			graph = new ModuleGraph(readJson("/module-graph.json", new TypeReference<Map<String, List<String>>>() {
+			}, Map.of()));
+			this.moduleGraph = graph;
+		}
+
+		return graph;
+	}
+
+	private Map<String, String> getImports() {
+		Map<String, String> importMapImports = this.imports;
+		if (importMapImports == null) {
+			importMapImports = readJson("/import-map.json", new TypeReference<Map<String, Map<String, String>>>() {
+			}, Map.<String, Map<String, String>>of()).getOrDefault("imports", Map.of());
+			this.imports = importMapImports;
+		}
+
+		return importMapImports;
+	}
+
+	private <T> T readJson(String path, TypeReference<T> type, T defaultValue) {
+		Resource resource = new ClassPathResource(path);
+		if (!resource.exists()) {
+			return defaultValue;
+		}
+
+		try (InputStream input = resource.getInputStream()) {
+			return this.objectMapper.readValue(input, type);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
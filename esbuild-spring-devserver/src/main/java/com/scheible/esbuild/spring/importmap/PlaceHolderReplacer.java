@@ -1,9 +1,6 @@
 package com.scheible.esbuild.spring.importmap;
 
-import com.scheible.esbuild.bindings.util.ImportMapper;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
-import org.springframework.web.util.UriUtils;
 
 /**
  *
@@ -12,12 +9,6 @@ import org.springframework.web.util.UriUtils;
 class PlaceHolderReplacer {
 
 	static String replace(String importMapJson, Map<String, String> params) {
-		for (Map.Entry<String, String> param : params.entrySet()) {
-			importMapJson = importMapJson.replace(param.getKey(),
-					ImportMapper.APP_REVISION_PLACEHOLDER.equals(param.getKey())
-					? UriUtils.encode(param.getValue(), StandardCharsets.UTF_8) : param.getValue());
-		}
-		
-		return importMapJson;
+		return PlaceHolderTemplate.compile(importMapJson).render(params);
 	}
 }
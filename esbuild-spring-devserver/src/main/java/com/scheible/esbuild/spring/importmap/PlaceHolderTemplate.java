@@ -0,0 +1,81 @@
+package com.scheible.esbuild.spring.importmap;
+
+import com.scheible.esbuild.bindings.util.ImportMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * A text with {@code ${NAME}} placeholders compiled into literal chunks and placeholder slots. Rendering is a single
+ * pass into a pre-sized buffer. Placeholders without a parameter are rendered unchanged. Immutable and therefore
+ * thread-safe.
+ *
+ * @author sj
+ */
+class PlaceHolderTemplate {
+
+	private static final String PLACEHOLDER_START = "${";
+	private static final String PLACEHOLDER_END = "}";
+
+	private final String[] literals; // always one more than placeholders
+	private final String[] placeHolders;
+	private final int literalsLength;
+
+	private PlaceHolderTemplate(String[] literals, String[] placeHolders) {
+		this.literals = literals;
+		this.placeHolders = placeHolders;
+
+		int length = 0;
+		for (String literal : literals) {
+			length += literal.length();
+		}
+		this.literalsLength = length;
+	}
+
+	static PlaceHolderTemplate compile(String text) {
+		List<String> literals = new ArrayList<>();
+		List<String> placeHolders = new ArrayList<>();
+
+		int literalStart = 0;
+		int placeHolderStart;
+		while ((placeHolderStart = text.indexOf(PLACEHOLDER_START, literalStart)) >= 0) {
+			int placeHolderEnd = text.indexOf(PLACEHOLDER_END, placeHolderStart + PLACEHOLDER_START.length());
+			if (placeHolderEnd < 0) {
+				break;
+			}
+
+			literals.add(text.substring(literalStart, placeHolderStart));
+			placeHolders.add(text.substring(placeHolderStart, placeHolderEnd + PLACEHOLDER_END.length()));
+			literalStart = placeHolderEnd + PLACEHOLDER_END.length();
+		}
+		literals.add(text.substring(literalStart));
+
+		return new PlaceHolderTemplate(literals.toArray(String[]::new), placeHolders.toArray(String[]::new));
+	}
+
+	/**
+	 * Only the value of the app revision is URL encoded.
+	 */
+	String render(Map<String, String> params) {
+		String[] values = new String[this.placeHolders.length];
+		int length = this.literalsLength;
+		for (int i = 0; i < this.placeHolders.length; i++) {
+			String value = params.get(this.placeHolders[i]);
+			if (value == null) {
+				value = this.placeHolders[i];
+			} else if (ImportMapper.APP_REVISION_PLACEHOLDER.equals(this.placeHolders[i])) {
+				value = UriUtils.encode(value, StandardCharsets.UTF_8);
+			}
+			values[i] = value;
+			length += value.length();
+		}
+
+		StringBuilder rendered = new StringBuilder(length);
+		for (int i = 0; i < values.length; i++) {
+			rendered.append(this.literals[i]).append(values[i]);
+		}
+		return rendered.append(this.literals[values.length]).toString();
+	}
+}
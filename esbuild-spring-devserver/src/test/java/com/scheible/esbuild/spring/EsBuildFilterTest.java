@@ -33,6 +33,17 @@ class EsBuildFilterTest {
 				UriComponentsBuilder.fromHttpUrl("http://localhost/context/frontend/script.js").build(), "/context")).isEqualTo("/script.js");
 	}
 
+	@Test
+	void testIsNotModified() {
+		assertThat(EsBuildFilter.isNotModified(null, "\"abc\"")).isFalse();
+		assertThat(EsBuildFilter.isNotModified("\"def\"", "\"abc\"")).isFalse();
+
+		assertThat(EsBuildFilter.isNotModified("\"abc\"", "\"abc\"")).isTrue();
+		assertThat(EsBuildFilter.isNotModified("W/\"abc\"", "\"abc\"")).isTrue();
+		assertThat(EsBuildFilter.isNotModified("\"def\", \"abc\"", "\"abc\"")).isTrue();
+		assertThat(EsBuildFilter.isNotModified("*", "\"abc\"")).isTrue();
+	}
+
 	@Test
 	void testGetExtension() {
 		assertThat(EsBuildFilter.getExtension(
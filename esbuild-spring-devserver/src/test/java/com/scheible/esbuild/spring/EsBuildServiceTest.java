@@ -0,0 +1,27 @@
+package com.scheible.esbuild.spring;
+
+import com.scheible.esbuild.bindings.TransformOptions;
+import com.scheible.esbuild.bindings.cache.TransformCacheKey;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class EsBuildServiceTest {
+
+	@Test
+	void testCacheKeySharedWithMavenPlugin() {
+		String tsConfigJson = "{\"compilerOptions\":{\"target\":\"esnext\"}}";
+		byte[] inputBytes = "const text: string = 'text';".getBytes(StandardCharsets.UTF_8);
+
+		// the options of the Maven plugin with its default output flags (only inline source maps)
+		TransformOptions mavenPluginOptions = TransformOptions.forBrowser(tsConfigJson, List.of("--sourcemap=inline"));
+
+		assertThat(TransformCacheKey.of("0.19.7", "main.ts", inputBytes, EsBuildService.transformOptions(tsConfigJson)))
+				.isEqualTo(TransformCacheKey.of("0.19.7", "main.ts", inputBytes, mavenPluginOptions));
+	}
+}
@@ -0,0 +1,91 @@
+package com.scheible.esbuild.spring;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+class FrontendWatcherTest {
+
+	private record Changes(Set<Path> changedFiles, Set<Path> deletedFiles) {
+
+	}
+
+	@Test
+	void testChangesAreBatched(@TempDir Path tempDir) throws IOException, InterruptedException {
+		Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+		Files.writeString(srcDir.resolve("existing.ts"), "const existing = 1;");
+
+		BlockingQueue<Changes> batches = new LinkedBlockingQueue<>();
+		FrontendWatcher watcher = new FrontendWatcher(List.of(srcDir), Duration.ofMillis(200));
+		watcher.addListener((changedFiles, deletedFiles) -> batches.add(new Changes(changedFiles, deletedFiles)));
+		watcher.start();
+
+		try {
+			Path subDir = Files.createDirectories(srcDir.resolve("sub"));
+			Files.writeString(subDir.resolve("first.ts"), "const first = 1;");
+			Files.writeString(srcDir.resolve("second.ts"), "const second = 2;");
+			Files.delete(srcDir.resolve("existing.ts"));
+
+			Changes changes = batches.poll(10, TimeUnit.SECONDS);
+			assertThat(changes).isNotNull();
+			assertThat(changes.changedFiles()).containsExactlyInAnyOrder(subDir.resolve("first.ts").toAbsolutePath(),
+					srcDir.resolve("second.ts").toAbsolutePath());
+			assertThat(changes.deletedFiles()).containsExactly(srcDir.resolve("existing.ts").toAbsolutePath());
+
+			// the new sub-directory is watched as well
+			Files.writeString(subDir.resolve("first.ts"), "const first = 2;");
+			changes = batches.poll(10, TimeUnit.SECONDS);
+			assertThat(changes).isNotNull();
+			assertThat(changes.changedFiles()).containsExactly(subDir.resolve("first.ts").toAbsolutePath());
+		} finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	void testDeletedDirectory(@TempDir Path tempDir) throws IOException, InterruptedException {
+		Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+		Path subDir = Files.createDirectories(srcDir.resolve("sub"));
+		Path first = Files.writeString(subDir.resolve("first.ts"), "const first = 1;").toAbsolutePath();
+		Path second = Files.writeString(Files.createDirectories(subDir.resolve("nested")).resolve("second.ts"),
+				"const second = 2;").toAbsolutePath();
+		Path other = Files.writeString(srcDir.resolve("sub-other.ts"), "const other = 3;").toAbsolutePath();
+
+		Map<Path, String> files = new HashMap<>(Map.of(first, "first", second, "second", other, "other"));
+
+		BlockingQueue<Changes> batches = new LinkedBlockingQueue<>();
+		FrontendWatcher watcher = new FrontendWatcher(List.of(srcDir), Duration.ofMillis(200));
+		watcher.addListener((changedFiles, deletedFiles) -> batches.add(new Changes(changedFiles, deletedFiles)));
+		watcher.start();
+
+		try {
+			// moving the directory away only reports the directory itself
+			Files.move(subDir, tempDir.resolve("moved"));
+
+			Changes changes = batches.poll(10, TimeUnit.SECONDS);
+			assertThat(changes).isNotNull();
+			assertThat(changes.deletedFiles()).containsExactly(subDir.toAbsolutePath());
+
+			assertThat(FrontendWatcher.removeDeleted(files, changes.deletedFiles()))
+					.containsExactlyInAnyOrder("first", "second");
+			assertThat(files).containsOnlyKeys(other);
+		} finally {
+			watcher.stop();
+		}
+	}
+}
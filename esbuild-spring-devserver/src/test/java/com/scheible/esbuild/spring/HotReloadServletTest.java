@@ -0,0 +1,39 @@
+package com.scheible.esbuild.spring;
+
+import com.scheible.esbuild.spring.HotReloadServlet.Change;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class HotReloadServletTest {
+
+	private static final Path SRC_DIR = Path.of("frontend", "src").toAbsolutePath();
+
+	private final HotReloadServlet hotReloadServlet = new HotReloadServlet(SRC_DIR, new AppRevision("dev"));
+
+	@Test
+	void testChangedFiles() {
+		assertThat(this.hotReloadServlet.toChange(Set.of(SRC_DIR.resolve("app.ts")), Set.of()))
+				.contains(new Change("dev-1", List.of("/frontend/app.js"), List.of(), false));
+		assertThat(this.hotReloadServlet.toChange(Set.of(SRC_DIR.resolve("styles/main.css")), Set.of()))
+				.contains(new Change("dev-2", List.of(), List.of("/frontend/styles/main.css"), false));
+	}
+
+	@Test
+	void testDeletedFileReloads() {
+		assertThat(this.hotReloadServlet.toChange(Set.of(), Set.of(SRC_DIR.resolve("util.ts"))))
+				.contains(new Change("dev-1", List.of(), List.of(), true));
+	}
+
+	@Test
+	void testFilesOutsideOfSrcDirIgnored() {
+		Path libFile = SRC_DIR.resolveSibling("lib").resolve("lib.ts");
+		assertThat(this.hotReloadServlet.toChange(Set.of(libFile), Set.of(libFile))).isEmpty();
+	}
+}
@@ -0,0 +1,27 @@
+package com.scheible.esbuild.spring.importmap;
+
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+class PlaceHolderTemplateTest {
+
+	@Test
+	void testRenderWithDifferentParams() {
+		PlaceHolderTemplate template = PlaceHolderTemplate.compile("{\"app\": \"${PREFIX}/app.js\", \"${PREFIX}\": 1}");
+
+		assertThat(template.render(Map.of("${PREFIX}", "/tenant-a"))).isEqualTo(
+				"{\"app\": \"/tenant-a/app.js\", \"/tenant-a\": 1}");
+		assertThat(template.render(Map.of("${PREFIX}", "/b"))).isEqualTo("{\"app\": \"/b/app.js\", \"/b\": 1}");
+	}
+
+	@Test
+	void testUnknownAndUnterminatedPlaceHolders() {
+		assertThat(PlaceHolderTemplate.compile("${UNKNOWN}-${KNOWN}-${UNTERMINATED").render(Map.of("${KNOWN}",
+				"known"))).isEqualTo("${UNKNOWN}-known-${UNTERMINATED");
+	}
+}